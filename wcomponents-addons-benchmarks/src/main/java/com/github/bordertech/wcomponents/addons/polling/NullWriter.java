@@ -0,0 +1,32 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.io.Writer;
+
+/**
+ * Writer that discards the output, so the benchmarks only measure the cost of painting.
+ *
+ * @since 1.0.6
+ */
+public class NullWriter extends Writer {
+
+	@Override
+	public void write(final char[] cbuf, final int off, final int len) {
+		// Discard
+	}
+
+	@Override
+	public void write(final String str, final int off, final int len) {
+		// Discard
+	}
+
+	@Override
+	public void flush() {
+		// Do nothing
+	}
+
+	@Override
+	public void close() {
+		// Do nothing
+	}
+
+}
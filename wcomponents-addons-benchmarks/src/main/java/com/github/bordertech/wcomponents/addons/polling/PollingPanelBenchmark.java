@@ -0,0 +1,113 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.wcomponents.Request;
+import com.github.bordertech.wcomponents.UIContextHolder;
+import com.github.bordertech.wcomponents.UIContextImpl;
+import com.github.bordertech.wcomponents.servlet.WebXmlRenderContext;
+import com.github.bordertech.wcomponents.util.mock.MockRequest;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the request lifecycle of a {@link PollingPanel} that is polling.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation per poll. A poll that does not stop polling ({@link #noResultPoll()}) should not allocate
+ * once the panel model has been created for the UIContext.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PollingPanelBenchmark {
+
+	private PollingPanel panel;
+
+	private Request request;
+
+	private PrintWriter writer;
+
+	/**
+	 * Setup a panel that is polling in its own UIContext.
+	 */
+	@Setup
+	public void setup() {
+		panel = new PollingPanel();
+		panel.setLocked(true);
+
+		UIContextImpl uic = new UIContextImpl();
+		uic.setUI(panel);
+		UIContextHolder.pushContext(uic);
+
+		request = new MockRequest();
+		writer = new PrintWriter(new NullWriter());
+
+		// Poll for a day so the timeout is checked on each poll
+		panel.setPollingTimeout(86400);
+		panel.doManualStart();
+	}
+
+	/**
+	 * Remove the UIContext.
+	 */
+	@TearDown
+	public void tearDown() {
+		UIContextHolder.popContext();
+	}
+
+	/**
+	 * @return true if stop polling
+	 */
+	@Benchmark
+	public boolean checkForStopPolling() {
+		return panel.checkForStopPolling();
+	}
+
+	/**
+	 * An AJAX poll that does not stop polling.
+	 */
+	@Benchmark
+	public void noResultPoll() {
+		panel.handlePoll();
+	}
+
+	/**
+	 * @return the progress bar script
+	 */
+	@Benchmark
+	public String buildProgressBarScript() {
+		return panel.buildProgressBarScript();
+	}
+
+	/**
+	 * Prepare paint the polling panel.
+	 */
+	@Benchmark
+	public void preparePaint() {
+		panel.preparePaint(request);
+	}
+
+	/**
+	 * Paint the polling panel.
+	 */
+	@Benchmark
+	public void paint() {
+		panel.paint(new WebXmlRenderContext(writer));
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.service.ResultHolder;
+import com.github.bordertech.taskmaster.service.ServiceAction;
+import com.github.bordertech.taskmaster.service.impl.ResultHolderDefault;
+import com.github.bordertech.wcomponents.UIContextHolder;
+import com.github.bordertech.wcomponents.UIContextImpl;
+import com.github.bordertech.wcomponents.WContainer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the polling and reload of a {@link PollingServicePanel}, with and without the JCache result holder cache.
+ * <p>
+ * Run with {@code -prof gc} to see the allocation per poll.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PollingServicePanelBenchmark {
+
+	/**
+	 * True if use the JCache result holder cache.
+	 */
+	@Param({"true", "false"})
+	public boolean cached;
+
+	private PollingServicePanel<String, String> runningPanel;
+
+	private PollingServicePanel<String, String> stoppedPanel;
+
+	/**
+	 * Setup a panel waiting on a service and a panel with a result waiting to be reloaded.
+	 */
+	@Setup
+	public void setup() {
+		WContainer root = new WContainer();
+		runningPanel = createPanel("running");
+		stoppedPanel = createPanel("stopped");
+		root.add(runningPanel);
+		root.add(stoppedPanel);
+		root.setLocked(true);
+
+		UIContextImpl uic = new UIContextImpl();
+		uic.setUI(root);
+		UIContextHolder.pushContext(uic);
+
+		// Service that never finishes
+		FutureTask<ResultHolder<String, String>> pending = new FutureTask<>(new Callable<ResultHolder<String, String>>() {
+			@Override
+			public ResultHolder<String, String> call() {
+				return null;
+			}
+		});
+		runningPanel.setTaskFuture(LocalTaskFuture.register(pending));
+		runningPanel.setPollingStatus(PollingStatus.PROCESSING);
+
+		// Result available
+		ResultHolder<String, String> result = new ResultHolderDefault("criteria", "result");
+		stoppedPanel.setServiceResult(result);
+		stoppedPanel.setPollingStatus(PollingStatus.STOPPED);
+	}
+
+	/**
+	 * Remove the UIContext and cached results.
+	 */
+	@TearDown
+	public void tearDown() {
+		stoppedPanel.setServiceResult(null);
+		UIContextHolder.popContext();
+	}
+
+	/**
+	 * @return true if stop polling
+	 */
+	@Benchmark
+	public boolean checkForStopPolling() {
+		return runningPanel.checkForStopPolling();
+	}
+
+	/**
+	 * An AJAX poll that does not find a result.
+	 */
+	@Benchmark
+	public void noResultPoll() {
+		runningPanel.handlePoll();
+	}
+
+	/**
+	 * The AJAX reload when the result is available.
+	 */
+	@Benchmark
+	public void reload() {
+		stoppedPanel.handlePollingReload();
+	}
+
+	/**
+	 * @param name the panel name used in the cache key
+	 * @return the polling service panel
+	 */
+	private PollingServicePanel<String, String> createPanel(final String name) {
+		PollingServicePanel<String, String> panel = new PollingServicePanel<>();
+		panel.setServiceAction(new EchoAction());
+		panel.setServiceCriteria("criteria");
+		panel.setServiceCacheKey("benchmark-" + name);
+		panel.setUseCachedResult(cached);
+		// Poll for a day so the timeout is checked on each poll
+		panel.setPollingTimeout(86400);
+		return panel;
+	}
+
+	/**
+	 * Service action that returns the criteria.
+	 */
+	private static final class EchoAction implements ServiceAction<String, String> {
+
+		@Override
+		public String service(final String criteria) {
+			return criteria;
+		}
+	}
+
+}
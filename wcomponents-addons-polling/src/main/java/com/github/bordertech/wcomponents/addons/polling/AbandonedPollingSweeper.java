@@ -0,0 +1,140 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Detects polling tasks that have been abandoned (eg the user has navigated away) and reclaims their resources.
+ * <p>
+ * A polling panel registers its task when it starts and sends a heartbeat on each poll. A shared scheduled sweeper checks the registered tasks and
+ * any task that has not had a heartbeat within the grace period (see {@link PollingProperties#getAbandonedGrace()}) is removed and its abandon
+ * action is run (eg cancel the service and release a logical thread).
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class AbandonedPollingSweeper {
+
+	private static final Log LOG = LogFactory.getLog(AbandonedPollingSweeper.class);
+
+	private static final Map<String, Heartbeat> TASKS = new ConcurrentHashMap<>();
+
+	private static final ScheduledExecutorService SWEEPER = createSweeper();
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private AbandonedPollingSweeper() {
+		//No-impl
+	}
+
+	/**
+	 * Register a polling task.
+	 *
+	 * @param onAbandon the action to run if the task is abandoned
+	 * @return the heartbeat id for the task
+	 */
+	public static String register(final Runnable onAbandon) {
+		String id = UUID.randomUUID().toString();
+		TASKS.put(id, new Heartbeat(onAbandon));
+		return id;
+	}
+
+	/**
+	 * Record a poll for the task.
+	 *
+	 * @param id the heartbeat id
+	 */
+	public static void heartbeat(final String id) {
+		Heartbeat heartbeat = id == null ? null : TASKS.get(id);
+		if (heartbeat != null) {
+			heartbeat.lastPoll = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Remove a polling task that has finished.
+	 *
+	 * @param id the heartbeat id
+	 * @return true if the task was registered, false if it has been treated as abandoned
+	 */
+	public static boolean unregister(final String id) {
+		return id != null && TASKS.remove(id) != null;
+	}
+
+	/**
+	 * @param id the heartbeat id
+	 * @return true if the task is registered and has not been treated as abandoned
+	 */
+	public static boolean isRegistered(final String id) {
+		return id != null && TASKS.containsKey(id);
+	}
+
+	/**
+	 * Check for abandoned tasks.
+	 */
+	public static void sweep() {
+		long cutoff = System.currentTimeMillis() - PollingProperties.getAbandonedGrace();
+		for (Iterator<Map.Entry<String, Heartbeat>> iter = TASKS.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, Heartbeat> entry = iter.next();
+			Heartbeat heartbeat = entry.getValue();
+			// Remove the entry first so the action is only run once
+			if (heartbeat.lastPoll < cutoff && TASKS.remove(entry.getKey(), heartbeat)) {
+				LOG.info("Polling task [" + entry.getKey() + "] has been abandoned.");
+				try {
+					heartbeat.onAbandon.run();
+				} catch (Exception e) {
+					LOG.warn("Error reclaiming abandoned polling task. " + e.getMessage(), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the scheduled sweeper
+	 */
+	private static ScheduledExecutorService createSweeper() {
+		ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				Thread thread = new Thread(runnable, "polling-abandoned-sweeper");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		long interval = PollingProperties.getAbandonedSweepInterval();
+		sweeper.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				sweep();
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+		return sweeper;
+	}
+
+	/**
+	 * The last poll for a task.
+	 */
+	private static final class Heartbeat {
+
+		private final Runnable onAbandon;
+
+		private volatile long lastPoll = System.currentTimeMillis();
+
+		/**
+		 * @param onAbandon the action to run if the task is abandoned
+		 */
+		private Heartbeat(final Runnable onAbandon) {
+			this.onAbandon = onAbandon;
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded buffer of the chunks emitted by a running service action and not yet collected by the polling panel.
+ * <p>
+ * The chunks are held once in a {@link ChunkList}, which is also the service result. The panel collects the chunks by moving the count of chunks
+ * it displays, and displays a snapshot that shares the chunks.
+ * </p>
+ * <p>
+ * Adding a chunk never blocks or fails the service action. If more chunks than the capacity are waiting to be collected because the panel is not
+ * polling often enough (eg a browser throttling a background tab), streaming stops. The panel displays the chunks collected so far until the
+ * service completes and the full result is loaded.
+ * </p>
+ * <p>
+ * The buffers are held on the local node until closed, so the chunks are not held in the user session.
+ * </p>
+ *
+ * @param <C> the chunk type
+ * @since 1.0.6
+ */
+public final class ChunkBuffer<C> {
+
+	private static final Map<String, ChunkBuffer<?>> BUFFERS = new ConcurrentHashMap<>();
+
+	private final ChunkList<C> chunks = new ChunkList<>();
+
+	private final int capacity;
+
+	private volatile int collected;
+
+	private volatile boolean stopped;
+
+	/**
+	 * @param capacity the maximum number of chunks waiting to be collected
+	 */
+	private ChunkBuffer(final int capacity) {
+		this.capacity = Math.max(capacity, 1);
+	}
+
+	/**
+	 * Open a buffer for the key.
+	 *
+	 * @param key the buffer key
+	 * @param capacity the maximum number of chunks waiting to be collected
+	 * @param <C> the chunk type
+	 * @return the buffer
+	 */
+	public static <C> ChunkBuffer<C> open(final String key, final int capacity) {
+		ChunkBuffer<C> buffer = new ChunkBuffer<>(capacity);
+		BUFFERS.put(key, buffer);
+		return buffer;
+	}
+
+	/**
+	 * @param key the buffer key
+	 * @param <C> the chunk type
+	 * @return the buffer for the key, or null if no buffer open
+	 */
+	public static <C> ChunkBuffer<C> get(final String key) {
+		return key == null ? null : (ChunkBuffer<C>) BUFFERS.get(key);
+	}
+
+	/**
+	 * Close the buffer for the key.
+	 *
+	 * @param key the buffer key
+	 */
+	public static void close(final String key) {
+		if (key != null) {
+			BUFFERS.remove(key);
+		}
+	}
+
+	/**
+	 * Add a chunk emitted by the service action. Streaming stops if too many chunks are waiting to be collected.
+	 *
+	 * @param chunk the chunk
+	 */
+	public void put(final C chunk) {
+		chunks.append(chunk);
+		if (!stopped && chunks.size() - collected > capacity) {
+			stopped = true;
+		}
+	}
+
+	/**
+	 * @return true if streaming stopped as too many chunks were waiting to be collected
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Collect the chunks emitted since the last collect, unless streaming has stopped.
+	 *
+	 * @return the number of chunks collected
+	 */
+	public int collect() {
+		if (stopped) {
+			return 0;
+		}
+		int current = chunks.size();
+		int added = current - collected;
+		collected = current;
+		return added;
+	}
+
+	/**
+	 * @return a snapshot of the chunks collected so far
+	 */
+	public ChunkList<C> getCollected() {
+		return chunks.snapshot(collected);
+	}
+
+	/**
+	 * @return all the chunks emitted, which is the service result
+	 */
+	public ChunkList<C> getChunks() {
+		return chunks;
+	}
+
+}
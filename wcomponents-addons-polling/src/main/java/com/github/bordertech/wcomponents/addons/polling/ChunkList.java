@@ -0,0 +1,135 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Read only list of the chunks emitted by a {@link ChunkedServiceAction}.
+ * <p>
+ * The service action appends the chunks while the polling panel reads them, so the chunks are only held once. The chunks are held in fixed size
+ * segments that are never moved, so a snapshot of the chunks emitted so far shares the segments rather than copying the chunks.
+ * </p>
+ * <p>
+ * Only one thread (the service action) can append chunks. Any number of threads can read them.
+ * </p>
+ *
+ * @param <C> the chunk type
+ * @since 1.0.6
+ */
+public final class ChunkList<C> extends AbstractList<C> implements RandomAccess, Serializable {
+
+	/**
+	 * The number of chunks held in a segment.
+	 */
+	private static final int SEGMENT_SIZE = 256;
+
+	private final boolean snapshot;
+
+	private transient volatile Object[][] segments;
+
+	private transient volatile int size;
+
+	/**
+	 * Construct an empty chunk list.
+	 */
+	public ChunkList() {
+		this(new Object[0][], 0, false);
+	}
+
+	/**
+	 * @param segments the segments holding the chunks
+	 * @param size the number of chunks
+	 * @param snapshot true if a read only snapshot
+	 */
+	private ChunkList(final Object[][] segments, final int size, final boolean snapshot) {
+		this.segments = segments;
+		this.size = size;
+		this.snapshot = snapshot;
+	}
+
+	@Override
+	public C get(final int index) {
+		// Read the size before the segments, so the segments hold the chunk
+		int current = size;
+		if (index < 0 || index >= current) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of range for size " + current + ".");
+		}
+		return (C) segments[index / SEGMENT_SIZE][index % SEGMENT_SIZE];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param count the number of chunks
+	 * @return a read only list of the first chunks that shares the segments of this list
+	 */
+	public ChunkList<C> snapshot(final int count) {
+		int current = size;
+		return new ChunkList<>(segments, Math.min(Math.max(count, 0), current), true);
+	}
+
+	/**
+	 * Append a chunk. Only called by the thread running the service action.
+	 *
+	 * @param chunk the chunk
+	 */
+	void append(final C chunk) {
+		if (snapshot) {
+			throw new UnsupportedOperationException("A snapshot of the chunks cannot be changed.");
+		}
+		int current = size;
+		int segment = current / SEGMENT_SIZE;
+		Object[][] segs = segments;
+		if (segment == segs.length) {
+			segs = Arrays.copyOf(segs, segment + 1);
+			segs[segment] = new Object[SEGMENT_SIZE];
+			segments = segs;
+		}
+		segs[segment][current % SEGMENT_SIZE] = chunk;
+		// Publish the chunk
+		size = current + 1;
+	}
+
+	/**
+	 * Only the chunks in the list are written.
+	 *
+	 * @param out the output stream
+	 * @throws IOException an IO exception
+	 */
+	private void writeObject(final ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		int current = size;
+		out.writeInt(current);
+		for (int i = 0; i < current; i++) {
+			out.writeObject(get(i));
+		}
+	}
+
+	/**
+	 * @param in the input stream
+	 * @throws IOException an IO exception
+	 * @throws ClassNotFoundException a class not found exception
+	 */
+	private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int count = in.readInt();
+		Object[][] segs = new Object[(count + SEGMENT_SIZE - 1) / SEGMENT_SIZE][];
+		for (int i = 0; i < segs.length; i++) {
+			segs[i] = new Object[SEGMENT_SIZE];
+		}
+		for (int i = 0; i < count; i++) {
+			segs[i / SEGMENT_SIZE][i % SEGMENT_SIZE] = in.readObject();
+		}
+		segments = segs;
+		size = count;
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.io.Serializable;
+
+/**
+ * Service action that emits its result in chunks, so the chunks can be displayed while the service is still running.
+ *
+ * @param <S> the criteria type
+ * @param <C> the chunk type
+ * @see PollingStreamingServicePanel
+ * @since 1.0.6
+ */
+public interface ChunkedServiceAction<S, C> extends Serializable {
+
+	/**
+	 * Invoke the service and emit the result chunks in order.
+	 *
+	 * @param criteria the service criteria
+	 * @param sink the sink to emit the chunks to
+	 */
+	void service(S criteria, ChunkSink<C> sink);
+
+	/**
+	 * Receives the chunks emitted by the service action.
+	 *
+	 * @param <C> the chunk type
+	 */
+	interface ChunkSink<C> {
+
+		/**
+		 * Emit a chunk. Never blocks, even if the chunks are not being displayed.
+		 *
+		 * @param chunk the chunk
+		 */
+		void emit(C chunk);
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.service.exception.ServiceException;
+
+/**
+ * The service was not called as the circuit breaker for the service action is open.
+ *
+ * @see ServiceCircuitBreaker
+ * @since 1.0.6
+ */
+public class CircuitOpenException extends ServiceException {
+
+	/**
+	 * @param msg the exception message
+	 */
+	public CircuitOpenException(final String msg) {
+		super(msg);
+	}
+
+}
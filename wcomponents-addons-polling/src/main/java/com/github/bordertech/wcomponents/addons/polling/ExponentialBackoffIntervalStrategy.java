@@ -0,0 +1,129 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Polling interval that backs off exponentially from the panel polling interval.
+ * <p>
+ * Each poll increases the delay by the multiplier up to the maximum interval. A random jitter is applied so panels started at the same time do
+ * not poll at the same time. The delay never goes past the polling timeout.
+ * </p>
+ * <p>
+ * If using the service history, the first polls are spread over the expected duration of the service (ie how long the same service action took
+ * previously), so a long running service is not polled at the same rate as a quick lookup. The delay is still capped by the maximum interval.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public class ExponentialBackoffIntervalStrategy implements PollingIntervalStrategy {
+
+	/**
+	 * Default multiplier applied on each poll.
+	 */
+	public static final double DEFAULT_MULTIPLIER = 1.5;
+
+	/**
+	 * Default maximum interval of 5 seconds.
+	 */
+	public static final int DEFAULT_MAX_INTERVAL = 5000;
+
+	/**
+	 * Default jitter of 20 percent.
+	 */
+	public static final double DEFAULT_JITTER = 0.2;
+
+	private final double multiplier;
+
+	private final int maxInterval;
+
+	private final double jitter;
+
+	private final boolean useHistory;
+
+	/**
+	 * Construct the strategy with the default settings and using the service history.
+	 */
+	public ExponentialBackoffIntervalStrategy() {
+		this(DEFAULT_MULTIPLIER, DEFAULT_MAX_INTERVAL, DEFAULT_JITTER, true);
+	}
+
+	/**
+	 * @param multiplier the multiplier applied to the interval on each poll
+	 * @param maxInterval the maximum interval in milli seconds
+	 * @param jitter the fraction of the interval to randomly vary by (0 for no jitter)
+	 * @param useHistory true if seed the interval from the expected duration of the service
+	 */
+	public ExponentialBackoffIntervalStrategy(final double multiplier, final int maxInterval, final double jitter, final boolean useHistory) {
+		if (multiplier < 1) {
+			throw new IllegalArgumentException("Multiplier must be at least 1.");
+		}
+		if (jitter < 0 || jitter >= 1) {
+			throw new IllegalArgumentException("Jitter must be between 0 and 1.");
+		}
+		this.multiplier = multiplier;
+		this.maxInterval = maxInterval;
+		this.jitter = jitter;
+		this.useHistory = useHistory;
+	}
+
+	/**
+	 * @return the multiplier applied to the interval on each poll
+	 */
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	/**
+	 * @return the maximum interval in milli seconds
+	 */
+	public int getMaxInterval() {
+		return maxInterval;
+	}
+
+	/**
+	 * @return the fraction of the interval to randomly vary by
+	 */
+	public double getJitter() {
+		return jitter;
+	}
+
+	/**
+	 * @return true if seed the interval from the expected duration of the service
+	 */
+	public boolean isUseHistory() {
+		return useHistory;
+	}
+
+	@Override
+	public int getNextPollingInterval(final PollingPanel panel) {
+		int base = panel.getPollingInterval();
+		long elapsed = panel.getPollingElapsedTime();
+
+		// Back off from the base interval
+		double max = Math.max(base, maxInterval);
+		double interval = Math.min(base * Math.pow(multiplier, panel.getPollCount()), max);
+
+		// Spread the polls over the expected duration
+		if (isUseHistory()) {
+			long expected = panel.getExpectedPollingDuration();
+			if (expected > elapsed) {
+				interval = Math.min(Math.max(interval, (expected - elapsed) / 2.0), max);
+			}
+		}
+
+		// Apply jitter
+		if (jitter > 0) {
+			interval += interval * jitter * ThreadLocalRandom.current().nextDouble(-1, 1);
+		}
+
+		// Dont go past the timeout
+		int timeout = panel.getPollingTimeout();
+		if (timeout > 0) {
+			long remaining = timeout * 1000L - elapsed;
+			interval = Math.min(interval, Math.max(remaining, base));
+		}
+
+		return (int) Math.max(base, interval);
+	}
+
+}
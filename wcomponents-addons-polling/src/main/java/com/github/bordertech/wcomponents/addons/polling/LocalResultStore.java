@@ -0,0 +1,190 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.service.ResultHolder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Node local store of service results, so a panel can keep its result out of the session.
+ * <p>
+ * The panel only holds the handle to its result. The least recently used results are evicted when the store is over its maximum size (see
+ * {@link PollingProperties#getLocalResultStoreMax()}). Results that have not been used for the idle time (see
+ * {@link PollingProperties#getLocalResultStoreIdle()}) are removed, so results of sessions that have ended do not stay in the store. A panel that
+ * cannot find its result (eg evicted or the session has failed over to another node) calls its service again.
+ * </p>
+ * <p>
+ * Reads do not lock the store. Each read records when the result was last used, and the eviction is done by the thread that puts the store over
+ * its maximum size. The eviction removes the least recently used results until the store is back under nine tenths of its maximum, so it does
+ * not run on every put. The idle results are removed at most once a minute when a result is put.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class LocalResultStore {
+
+	private static final Map<String, StoredResult> RESULTS = new ConcurrentHashMap<>();
+
+	private static final ReentrantLock EVICT_LOCK = new ReentrantLock();
+
+	private static final long PURGE_INTERVAL = 60000;
+
+	private static final AtomicLong LAST_PURGE = new AtomicLong();
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private LocalResultStore() {
+		//No-impl
+	}
+
+	/**
+	 * @param result the service result
+	 * @return the handle to the result
+	 */
+	public static String put(final ResultHolder result) {
+		String handle = UUID.randomUUID().toString();
+		RESULTS.put(handle, new StoredResult(result));
+		purgeIdleResults();
+		if (RESULTS.size() > PollingProperties.getLocalResultStoreMax()) {
+			evict();
+		}
+		return handle;
+	}
+
+	/**
+	 * @param handle the handle to the result
+	 * @param <S> the criteria type
+	 * @param <T> the result type
+	 * @return the service result, or null if not in the store
+	 */
+	public static <S, T> ResultHolder<S, T> get(final String handle) {
+		StoredResult stored = handle == null ? null : RESULTS.get(handle);
+		if (stored == null) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		if (now - stored.lastUsed > PollingProperties.getLocalResultStoreIdle()) {
+			RESULTS.remove(handle, stored);
+			return null;
+		}
+		stored.lastUsed = now;
+		return stored.result;
+	}
+
+	/**
+	 * @param handle the handle to the result
+	 * @return true if the result is in the store
+	 */
+	public static boolean contains(final String handle) {
+		StoredResult stored = handle == null ? null : RESULTS.get(handle);
+		return stored != null && System.currentTimeMillis() - stored.lastUsed <= PollingProperties.getLocalResultStoreIdle();
+	}
+
+	/**
+	 * @param handle the handle to the result to remove
+	 */
+	public static void remove(final String handle) {
+		if (handle != null) {
+			RESULTS.remove(handle);
+		}
+	}
+
+	/**
+	 * Remove the results that have not been used for the idle time.
+	 */
+	private static void purgeIdleResults() {
+		long now = System.currentTimeMillis();
+		long last = LAST_PURGE.get();
+		if (now - last < PURGE_INTERVAL || !LAST_PURGE.compareAndSet(last, now)) {
+			return;
+		}
+		long idle = PollingProperties.getLocalResultStoreIdle();
+		for (Map.Entry<String, StoredResult> entry : RESULTS.entrySet()) {
+			StoredResult stored = entry.getValue();
+			if (now - stored.lastUsed > idle) {
+				RESULTS.remove(entry.getKey(), stored);
+			}
+		}
+	}
+
+	/**
+	 * Evict the least recently used results. Skipped if another thread is already evicting.
+	 */
+	private static void evict() {
+		if (!EVICT_LOCK.tryLock()) {
+			return;
+		}
+		try {
+			int max = PollingProperties.getLocalResultStoreMax();
+			int target = max - max / 10;
+			int excess = RESULTS.size() - target;
+			if (excess <= 0) {
+				return;
+			}
+			// Snapshot the last used times so the sort is stable while results are read
+			List<Candidate> candidates = new ArrayList<>(RESULTS.size());
+			for (Map.Entry<String, StoredResult> entry : RESULTS.entrySet()) {
+				candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+			}
+			Collections.sort(candidates, new Comparator<Candidate>() {
+				@Override
+				public int compare(final Candidate candidate1, final Candidate candidate2) {
+					return Long.compare(candidate1.lastUsed, candidate2.lastUsed);
+				}
+			});
+			for (int i = 0; i < excess && i < candidates.size(); i++) {
+				Candidate candidate = candidates.get(i);
+				RESULTS.remove(candidate.handle, candidate.stored);
+			}
+		} finally {
+			EVICT_LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Result and when it was last used.
+	 */
+	private static final class StoredResult {
+
+		private final ResultHolder result;
+
+		private volatile long lastUsed = System.currentTimeMillis();
+
+		/**
+		 * @param result the service result
+		 */
+		private StoredResult(final ResultHolder result) {
+			this.result = result;
+		}
+	}
+
+	/**
+	 * Result to be considered for eviction.
+	 */
+	private static final class Candidate {
+
+		private final String handle;
+
+		private final StoredResult stored;
+
+		private final long lastUsed;
+
+		/**
+		 * @param handle the handle to the result
+		 * @param stored the stored result
+		 */
+		private Candidate(final String handle, final StoredResult stored) {
+			this.handle = handle;
+			this.stored = stored;
+			this.lastUsed = stored.lastUsed;
+		}
+	}
+
+}
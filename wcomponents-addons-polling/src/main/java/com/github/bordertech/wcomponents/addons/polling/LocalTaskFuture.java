@@ -0,0 +1,183 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.TaskFuture;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link TaskFuture} for a task running in this JVM that can be held in the user session.
+ * <p>
+ * The future is held in a local registry so it can be found again after the session has been serialized. The task should be released once its
+ * result has been collected or it is no longer needed. Finished tasks that are never released are kept for a retention period so their result
+ * can be collected. If the task is no longer available (eg the session has moved node), the future is treated as done and will throw an
+ * {@link ExecutionException}.
+ * </p>
+ *
+ * @param <T> the task result type
+ * @since 1.0.6
+ */
+public final class LocalTaskFuture<T> implements TaskFuture<T> {
+
+	private static final Map<String, LocalTask> TASKS = new ConcurrentHashMap<>();
+
+	private static final long PURGE_INTERVAL = 60000;
+
+	private static final AtomicLong LAST_PURGE = new AtomicLong();
+
+	private final String id;
+
+	private transient Future<T> future;
+
+	/**
+	 * @param id the task id
+	 * @param future the backing future
+	 */
+	private LocalTaskFuture(final String id, final Future<T> future) {
+		this.id = id;
+		this.future = future;
+	}
+
+	/**
+	 * Register a future running in this JVM.
+	 *
+	 * @param future the backing future
+	 * @param <T> the task result type
+	 * @return the task future for the backing future
+	 */
+	public static <T> LocalTaskFuture<T> register(final Future<T> future) {
+		purgeFinishedTasks();
+		String id = UUID.randomUUID().toString();
+		TASKS.put(id, new LocalTask(future));
+		return new LocalTaskFuture<>(id, future);
+	}
+
+	/**
+	 * Remove the task from the local registry once its result has been collected or it is no longer needed.
+	 * <p>
+	 * This future can still return the result, but once the session has been serialized the task is no longer available.
+	 * </p>
+	 */
+	public void release() {
+		TASKS.remove(id);
+		purgeFinishedTasks();
+	}
+
+	/**
+	 * @return the task id
+	 */
+	public String getId() {
+		return id;
+	}
+
+	@Override
+	public boolean cancel(final boolean mayInterruptIfRunning) {
+		Future<T> current = getFuture();
+		return current != null && current.cancel(mayInterruptIfRunning);
+	}
+
+	@Override
+	public boolean isCancelled() {
+		Future<T> current = getFuture();
+		return current != null && current.isCancelled();
+	}
+
+	@Override
+	public boolean isDone() {
+		Future<T> current = getFuture();
+		return current == null || current.isDone();
+	}
+
+	@Override
+	public T get() throws InterruptedException, ExecutionException {
+		return getAvailableFuture().get();
+	}
+
+	@Override
+	public T get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		return getAvailableFuture().get(timeout, unit);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		return obj instanceof LocalTaskFuture && id.equals(((LocalTaskFuture) obj).id);
+	}
+
+	@Override
+	public int hashCode() {
+		return id.hashCode();
+	}
+
+	/**
+	 * @return the backing future, or null if no longer available
+	 */
+	private Future<T> getFuture() {
+		if (future == null) {
+			purgeFinishedTasks();
+			LocalTask task = TASKS.get(id);
+			if (task != null) {
+				future = (Future<T>) task.future;
+			}
+		}
+		return future;
+	}
+
+	/**
+	 * @return the backing future
+	 * @throws ExecutionException the task is no longer available
+	 */
+	private Future<T> getAvailableFuture() throws ExecutionException {
+		Future<T> current = getFuture();
+		if (current == null) {
+			throw new ExecutionException("Task [" + id + "] is no longer available.", null);
+		}
+		return current;
+	}
+
+	/**
+	 * Remove the tasks that finished before the retention period. The purge runs at most once a minute when tasks are registered, released or
+	 * looked up.
+	 */
+	private static void purgeFinishedTasks() {
+		long now = System.currentTimeMillis();
+		long last = LAST_PURGE.get();
+		if (now - last < PURGE_INTERVAL || !LAST_PURGE.compareAndSet(last, now)) {
+			return;
+		}
+		long retention = PollingProperties.getLocalTaskRetention();
+		for (Iterator<LocalTask> iter = TASKS.values().iterator(); iter.hasNext();) {
+			LocalTask task = iter.next();
+			if (task.future.isDone()) {
+				if (task.doneTime == 0) {
+					task.doneTime = now;
+				} else if (now - task.doneTime > retention) {
+					iter.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Task registered in the local registry.
+	 */
+	private static final class LocalTask {
+
+		private final Future<?> future;
+
+		private volatile long doneTime;
+
+		/**
+		 * @param future the backing future
+		 */
+		private LocalTask(final Future<?> future) {
+			this.future = future;
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Fair queue of panels waiting for a logical thread.
+ * <p>
+ * Waiting panels are granted a thread in priority order and first in first out within a priority. A ticket that has not been checked within the
+ * abandoned grace period (see {@link PollingProperties#getAbandonedGrace()}) is dropped from the queue, so a panel that stops polling does not block
+ * the panels behind it.
+ * </p>
+ * <p>
+ * The queue also records the logical threads held by abandoned services. These are released by the next request for the user, as the logical
+ * thread pool controller can only be used with the user context.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public class LogicalThreadQueue implements Serializable {
+
+	private final List<Ticket> tickets = new ArrayList<>();
+
+	private long nextTicket = 1;
+
+	private int pendingReleases;
+
+	/**
+	 * Join the queue.
+	 *
+	 * @param priority the panel priority
+	 * @return the ticket number
+	 */
+	public synchronized long enqueue(final PollingPriority priority) {
+		Ticket ticket = new Ticket(nextTicket++, priority == null ? PollingPriority.NORMAL : priority);
+		// Insert after the tickets with the same or higher priority
+		int idx = 0;
+		while (idx < tickets.size() && tickets.get(idx).priority.compareTo(ticket.priority) >= 0) {
+			idx++;
+		}
+		tickets.add(idx, ticket);
+		return ticket.number;
+	}
+
+	/**
+	 * @param number the ticket number
+	 * @return the position in the queue (starting at 1), or 0 if not in the queue
+	 */
+	public synchronized int getPosition(final long number) {
+		pruneTickets();
+		for (int i = 0; i < tickets.size(); i++) {
+			Ticket ticket = tickets.get(i);
+			if (ticket.number == number) {
+				ticket.lastChecked = System.currentTimeMillis();
+				return i + 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @param number the ticket number
+	 * @return true if the ticket is at the head of the queue
+	 */
+	public synchronized boolean isNext(final long number) {
+		return getPosition(number) == 1;
+	}
+
+	/**
+	 * Leave the queue.
+	 *
+	 * @param number the ticket number
+	 */
+	public synchronized void remove(final long number) {
+		for (Iterator<Ticket> iter = tickets.iterator(); iter.hasNext();) {
+			if (iter.next().number == number) {
+				iter.remove();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Record a logical thread held by an abandoned service that needs to be released.
+	 */
+	public synchronized void addPendingRelease() {
+		pendingReleases++;
+	}
+
+	/**
+	 * @return the number of logical threads to be released, which are then treated as released
+	 */
+	public synchronized int takePendingReleases() {
+		int releases = pendingReleases;
+		pendingReleases = 0;
+		return releases;
+	}
+
+	/**
+	 * @return the number of panels waiting
+	 */
+	public synchronized int size() {
+		return tickets.size();
+	}
+
+	/**
+	 * Drop the tickets that have not been checked within the grace period.
+	 */
+	private void pruneTickets() {
+		long cutoff = System.currentTimeMillis() - PollingProperties.getAbandonedGrace();
+		for (Iterator<Ticket> iter = tickets.iterator(); iter.hasNext();) {
+			if (iter.next().lastChecked < cutoff) {
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Ticket for a waiting panel.
+	 */
+	private static final class Ticket implements Serializable {
+
+		private final long number;
+
+		private final PollingPriority priority;
+
+		private long lastChecked = System.currentTimeMillis();
+
+		/**
+		 * @param number the ticket number
+		 * @param priority the panel priority
+		 */
+		private Ticket(final long number, final PollingPriority priority) {
+			this.number = number;
+			this.priority = priority;
+		}
+	}
+
+}
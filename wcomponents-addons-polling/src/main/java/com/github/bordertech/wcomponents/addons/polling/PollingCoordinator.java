@@ -0,0 +1,343 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.wcomponents.AjaxHelper;
+import com.github.bordertech.wcomponents.AjaxTarget;
+import com.github.bordertech.wcomponents.ComponentWithContext;
+import com.github.bordertech.wcomponents.Request;
+import com.github.bordertech.wcomponents.UIContextHolder;
+import com.github.bordertech.wcomponents.WAjaxControl;
+import com.github.bordertech.wcomponents.WPanel;
+import com.github.bordertech.wcomponents.WebUtilities;
+import com.github.bordertech.wcomponents.addons.common.WDiv;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Coordinates the AJAX polling of the {@link PollingPanel}s it contains.
+ * <p>
+ * Instead of each panel having its own AJAX poll, the panels register with the coordinator when they start polling. The coordinator checks all the
+ * registered panels in the one AJAX poll and only reloads the panels that have stopped polling.
+ * </p>
+ * <p>
+ * The coordinator polls at the smallest interval of the registered panels. The registered panels are held by their id, so the session only holds
+ * the ids and panels in a repeater are checked in the context of their row.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public class PollingCoordinator extends WPanel {
+
+	/**
+	 * The container that holds the AJAX controls.
+	 */
+	private final WDiv ajaxPollingPanel = new WDiv() {
+		@Override
+		public boolean isHidden() {
+			return true;
+		}
+	};
+
+	/**
+	 * AJAX poller for all the registered panels.
+	 */
+	private final WAjaxControl ajaxPolling = new WAjaxControl(null, ajaxPollingPanel) {
+		@Override
+		public int getDelay() {
+			return getNextPollingInterval();
+		}
+
+		@Override
+		public boolean isVisible() {
+			return !getActivePanelIds().isEmpty();
+		}
+
+		@Override
+		public List<AjaxTarget> getTargets() {
+			List<AjaxTarget> targets = new ArrayList<>(super.getTargets());
+			for (ComponentWithContext panel : findPanels(getActivePanelIds())) {
+				UIContextHolder.pushContext(panel.getContext());
+				try {
+					List<AjaxTarget> refresh = ((PollingPanel) panel.getComponent()).getPollingRefreshTargets();
+					if (refresh != null) {
+						targets.addAll(refresh);
+					}
+				} finally {
+					UIContextHolder.popContext();
+				}
+			}
+			return targets;
+		}
+
+		@Override
+		public void handleRequest(final Request request) {
+			super.handleRequest(request);
+			if (isVisible() && AjaxHelper.isCurrentAjaxTrigger(this)) {
+				handleCoordinatedPoll();
+			}
+		}
+	};
+
+	/**
+	 * AJAX control to reload the panels that have stopped polling.
+	 */
+	private final WAjaxControl ajaxReload = new WAjaxControl(null, ajaxPollingPanel) {
+		@Override
+		public boolean isVisible() {
+			return !getReloadPanelIds().isEmpty();
+		}
+
+		@Override
+		public List<AjaxTarget> getTargets() {
+			List<AjaxTarget> targets = new ArrayList<>(super.getTargets());
+			for (ComponentWithContext panel : findPanels(getReloadPanelIds())) {
+				UIContextHolder.pushContext(panel.getContext());
+				try {
+					PollingPanel pollingPanel = (PollingPanel) panel.getComponent();
+					targets.add(pollingPanel);
+					List<AjaxTarget> extra = pollingPanel.getAjaxTargets();
+					if (extra != null) {
+						targets.addAll(extra);
+					}
+				} finally {
+					UIContextHolder.popContext();
+				}
+			}
+			return targets;
+		}
+
+		@Override
+		public void handleRequest(final Request request) {
+			super.handleRequest(request);
+			if (isVisible() && AjaxHelper.isCurrentAjaxTrigger(this)) {
+				handleCoordinatedReload();
+			}
+		}
+	};
+
+	/**
+	 * Construct the polling coordinator.
+	 */
+	public PollingCoordinator() {
+		add(ajaxPollingPanel);
+		ajaxPollingPanel.add(ajaxPolling);
+		ajaxPollingPanel.add(ajaxReload);
+		ajaxPolling.setLoadOnce(true);
+		ajaxReload.setLoadOnce(true);
+		ajaxReload.setDelay(10);
+	}
+
+	/**
+	 * The container is repainted to start the coordinator polling.
+	 *
+	 * @return the container that holds the AJAX controls
+	 */
+	public final AjaxTarget getPollContainer() {
+		return ajaxPollingPanel;
+	}
+
+	/**
+	 * @return the ids of the panels currently polling
+	 */
+	public List<String> getActivePanelIds() {
+		List<String> ids = getComponentModel().activePanelIds;
+		return ids == null ? Collections.<String>emptyList() : Collections.unmodifiableList(ids);
+	}
+
+	/**
+	 * @return the ids of the panels that have stopped polling and are waiting to be reloaded
+	 */
+	public List<String> getReloadPanelIds() {
+		List<String> ids = getComponentModel().reloadPanelIds;
+		return ids == null ? Collections.<String>emptyList() : Collections.unmodifiableList(ids);
+	}
+
+	/**
+	 * @return true if the coordinator has panels polling or waiting to be reloaded
+	 */
+	public boolean isPolling() {
+		return !getActivePanelIds().isEmpty() || !getReloadPanelIds().isEmpty();
+	}
+
+	/**
+	 * @return true if the current AJAX request was triggered by the coordinator, so its poll container is repainted
+	 */
+	public boolean isCoordinatorTrigger() {
+		return AjaxHelper.isCurrentAjaxTrigger(ajaxPolling) || AjaxHelper.isCurrentAjaxTrigger(ajaxReload);
+	}
+
+	/**
+	 * Register a panel that has started polling.
+	 * <p>
+	 * If the coordinator is not already polling, the poll container (see {@link #getPollContainer()}) must be repainted to start the polling.
+	 * </p>
+	 *
+	 * @param panel the polling panel
+	 */
+	public void registerPanel(final PollingPanel panel) {
+		String id = panel.getId();
+		CoordinatorModel model = getOrCreateComponentModel();
+		if (model.activePanelIds == null) {
+			model.activePanelIds = new ArrayList<>();
+		}
+		if (!model.activePanelIds.contains(id)) {
+			model.activePanelIds.add(id);
+		}
+		if (model.reloadPanelIds != null) {
+			model.reloadPanelIds.remove(id);
+		}
+	}
+
+	/**
+	 * Remove a panel that is no longer polling.
+	 *
+	 * @param panel the polling panel
+	 */
+	public void unregisterPanel(final PollingPanel panel) {
+		removeActivePanel(panel.getId());
+	}
+
+	/**
+	 * Reload a panel that has stopped polling.
+	 *
+	 * @param panel the polling panel to reload
+	 */
+	public void doReloadPanel(final PollingPanel panel) {
+		String id = panel.getId();
+		removeActivePanel(id);
+		CoordinatorModel model = getOrCreateComponentModel();
+		if (model.reloadPanelIds == null) {
+			model.reloadPanelIds = new ArrayList<>();
+		}
+		if (!model.reloadPanelIds.contains(id)) {
+			model.reloadPanelIds.add(id);
+		}
+	}
+
+	/**
+	 * @return the delay in milli seconds before the next AJAX poll
+	 */
+	public int getNextPollingInterval() {
+		int interval = Integer.MAX_VALUE;
+		for (ComponentWithContext panel : findPanels(getActivePanelIds())) {
+			UIContextHolder.pushContext(panel.getContext());
+			try {
+				interval = Math.min(interval, ((PollingPanel) panel.getComponent()).getNextPollingInterval());
+			} finally {
+				UIContextHolder.popContext();
+			}
+		}
+		return interval == Integer.MAX_VALUE ? 0 : interval;
+	}
+
+	/**
+	 * Check all the registered panels in the one AJAX poll.
+	 */
+	protected void handleCoordinatedPoll() {
+		List<String> ids = new ArrayList<>(getActivePanelIds());
+		for (String id : ids) {
+			ComponentWithContext panel = findPanel(id);
+			if (panel == null) {
+				// Panel has been removed
+				removeActivePanel(id);
+				continue;
+			}
+			UIContextHolder.pushContext(panel.getContext());
+			try {
+				PollingPanel pollingPanel = (PollingPanel) panel.getComponent();
+				if (pollingPanel.isPolling()) {
+					pollingPanel.handlePoll();
+				} else {
+					// Panel has been reset
+					removeActivePanel(id);
+				}
+			} finally {
+				UIContextHolder.popContext();
+			}
+		}
+	}
+
+	/**
+	 * Reload the panels that have stopped polling.
+	 */
+	protected void handleCoordinatedReload() {
+		List<ComponentWithContext> panels = findPanels(getReloadPanelIds());
+		getOrCreateComponentModel().reloadPanelIds = null;
+		for (ComponentWithContext panel : panels) {
+			UIContextHolder.pushContext(panel.getContext());
+			try {
+				((PollingPanel) panel.getComponent()).handlePollingReload();
+			} finally {
+				UIContextHolder.popContext();
+			}
+		}
+	}
+
+	/**
+	 * @param id the panel id to remove from the active panels
+	 */
+	private void removeActivePanel(final String id) {
+		CoordinatorModel model = getComponentModel();
+		if (model.activePanelIds != null && model.activePanelIds.contains(id)) {
+			getOrCreateComponentModel().activePanelIds.remove(id);
+		}
+	}
+
+	/**
+	 * @param ids the panel ids
+	 * @return the panels found with their context
+	 */
+	private List<ComponentWithContext> findPanels(final List<String> ids) {
+		List<ComponentWithContext> panels = new ArrayList<>(ids.size());
+		for (String id : ids) {
+			ComponentWithContext panel = findPanel(id);
+			if (panel != null) {
+				panels.add(panel);
+			}
+		}
+		return panels;
+	}
+
+	/**
+	 * The panel is looked up with its context, as the panel may be in a repeater.
+	 *
+	 * @param id the panel id
+	 * @return the panel with its context, or null if not found
+	 */
+	private ComponentWithContext findPanel(final String id) {
+		ComponentWithContext panel = WebUtilities.getComponentById(id, false);
+		return panel != null && panel.getComponent() instanceof PollingPanel ? panel : null;
+	}
+
+	@Override
+	protected CoordinatorModel newComponentModel() {
+		return new CoordinatorModel();
+	}
+
+	@Override
+	protected CoordinatorModel getOrCreateComponentModel() {
+		return (CoordinatorModel) super.getOrCreateComponentModel();
+	}
+
+	@Override
+	protected CoordinatorModel getComponentModel() {
+		return (CoordinatorModel) super.getComponentModel();
+	}
+
+	/**
+	 * This model holds the state information.
+	 */
+	public static class CoordinatorModel extends PanelModel {
+
+		/**
+		 * Ids of the panels currently polling.
+		 */
+		private List<String> activePanelIds;
+
+		/**
+		 * Ids of the panels waiting to be reloaded.
+		 */
+		private List<String> reloadPanelIds;
+	}
+
+}
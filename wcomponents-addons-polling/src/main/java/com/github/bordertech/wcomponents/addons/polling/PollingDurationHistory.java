@@ -0,0 +1,62 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the recent polling durations for a key (eg the service action) so the polling can be tuned to how long the service usually takes.
+ * <p>
+ * The duration is a moving average weighted to the most recent durations.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class PollingDurationHistory {
+
+	/**
+	 * Weight given to the latest duration.
+	 */
+	private static final double WEIGHT = 0.2;
+
+	private static final Map<String, Long> DURATIONS = new ConcurrentHashMap<>();
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private PollingDurationHistory() {
+		//No-impl
+	}
+
+	/**
+	 * @param key the history key
+	 * @param duration the duration in milli seconds
+	 */
+	public static void recordDuration(final String key, final long duration) {
+		if (key == null || duration < 0) {
+			return;
+		}
+		DURATIONS.merge(key, duration, (prev, latest) -> Math.round(prev * (1 - WEIGHT) + latest * WEIGHT));
+	}
+
+	/**
+	 * @param key the history key
+	 * @return the expected duration in milli seconds, or 0 if no history
+	 */
+	public static long getExpectedDuration(final String key) {
+		if (key == null) {
+			return 0;
+		}
+		Long duration = DURATIONS.get(key);
+		return duration == null ? 0 : duration;
+	}
+
+	/**
+	 * @param key the history key to clear
+	 */
+	public static void clearDuration(final String key) {
+		if (key != null) {
+			DURATIONS.remove(key);
+		}
+	}
+
+}
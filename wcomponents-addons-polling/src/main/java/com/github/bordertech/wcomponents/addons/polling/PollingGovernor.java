@@ -0,0 +1,116 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sheds polling load across the whole application when the service tier is saturated.
+ * <p>
+ * The governor watches the rate of rejected service calls and the number of service actions waiting to run. When either goes over its threshold
+ * (see {@link PollingProperties#getGovernorRejectedThreshold()} and {@link PollingProperties#getGovernorQueueThreshold()}), the delay between
+ * polls is stretched for all panels, up to the maximum stretch (see {@link PollingProperties#getGovernorMaxStretch()}). Panels with a
+ * {@link PollingPriority#HIGH high} priority are not stretched and panels with a {@link PollingPriority#LOW low} priority do not start their
+ * service while load is being shed (up to the maximum deferral, see {@link PollingProperties#getGovernorMaxDeferral()}).
+ * </p>
+ * <p>
+ * The queue length only counts the service actions waiting in the {@link VirtualThreadServiceExecutor} pools. The governor cannot see the queues
+ * of the default Taskmaster thread pools, so when they are used the queue length is always zero and only the rejected rate sheds load.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class PollingGovernor {
+
+	/**
+	 * The window in milli seconds the rejected rate is measured over.
+	 */
+	private static final long WINDOW = 10000;
+
+	/**
+	 * How often in milli seconds the stretch is worked out.
+	 */
+	private static final long REFRESH = 1000;
+
+	private static final AtomicInteger REJECTED = new AtomicInteger();
+
+	private static volatile int previousRejected;
+
+	private static volatile long windowStart = System.currentTimeMillis();
+
+	private static volatile long lastRefresh;
+
+	private static volatile double stretch = 1.0;
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private PollingGovernor() {
+		//No-impl
+	}
+
+	/**
+	 * Record a service call that was rejected (usually no threads available).
+	 */
+	public static void recordRejected() {
+		REJECTED.incrementAndGet();
+	}
+
+	/**
+	 * @return the factor to stretch the polling delay by (1 if not shedding load)
+	 */
+	public static double getStretch() {
+		long now = System.currentTimeMillis();
+		if (now - lastRefresh >= REFRESH) {
+			refresh(now);
+		}
+		return stretch;
+	}
+
+	/**
+	 * @return true if load is being shed
+	 */
+	public static boolean isShedding() {
+		return getStretch() > 1.0;
+	}
+
+	/**
+	 * @param interval the polling interval in milli seconds
+	 * @param priority the panel priority
+	 * @return the stretched polling interval in milli seconds
+	 */
+	public static int stretchInterval(final int interval, final PollingPriority priority) {
+		if (priority == PollingPriority.HIGH) {
+			return interval;
+		}
+		double factor = getStretch();
+		if (factor <= 1.0) {
+			return interval;
+		}
+		return (int) Math.min(interval * factor, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Work out the stretch from the rejected rate and the queue length.
+	 *
+	 * @param now the current time
+	 */
+	private static synchronized void refresh(final long now) {
+		if (now - lastRefresh < REFRESH) {
+			return;
+		}
+		lastRefresh = now;
+		// Roll the window
+		if (now - windowStart >= WINDOW) {
+			previousRejected = REJECTED.getAndSet(0);
+			windowStart = now;
+		}
+		// Weight the previous window by how much of it is still in the sliding window
+		double elapsed = Math.min((now - windowStart) / (double) WINDOW, 1.0);
+		double rejected = REJECTED.get() + previousRejected * (1.0 - elapsed);
+		double rejectedLoad = rejected / Math.max(PollingProperties.getGovernorRejectedThreshold(), 1);
+		double queueLoad = VirtualThreadServiceExecutor.getTotalQueueLength() / (double) Math.max(PollingProperties.getGovernorQueueThreshold(),
+				1);
+		double load = Math.max(rejectedLoad, queueLoad);
+		stretch = load <= 1.0 ? 1.0 : Math.min(load, PollingProperties.getGovernorMaxStretch());
+	}
+
+}
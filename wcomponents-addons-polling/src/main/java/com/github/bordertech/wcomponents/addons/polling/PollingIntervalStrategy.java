@@ -0,0 +1,22 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.io.Serializable;
+
+/**
+ * Strategy to determine the delay before the next AJAX poll.
+ * <p>
+ * The strategy is called each time the AJAX poller is painted, so the delay can change as the polling progresses.
+ * </p>
+ *
+ * @see PollingPanel#setPollingIntervalStrategy(PollingIntervalStrategy)
+ * @since 1.0.6
+ */
+public interface PollingIntervalStrategy extends Serializable {
+
+	/**
+	 * @param panel the polling panel being painted
+	 * @return the delay in milli seconds before the next AJAX poll
+	 */
+	int getNextPollingInterval(final PollingPanel panel);
+
+}
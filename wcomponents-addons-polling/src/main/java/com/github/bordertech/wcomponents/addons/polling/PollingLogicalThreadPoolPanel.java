@@ -2,8 +2,16 @@ package com.github.bordertech.wcomponents.addons.polling;
 
 import com.github.bordertech.taskmaster.logical.LogicalThreadPoolController;
 import com.github.bordertech.taskmaster.service.ResultHolder;
+import com.github.bordertech.wcomponents.UIContext;
+import com.github.bordertech.wcomponents.UIContextHolder;
+import com.github.bordertech.wcomponents.AjaxTarget;
+import com.github.bordertech.wcomponents.WComponent;
+import com.github.bordertech.wcomponents.WText;
 import com.github.bordertech.wcomponents.WebUtilities;
+import com.github.bordertech.wcomponents.addons.common.WDiv;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -12,6 +20,11 @@ import org.apache.commons.logging.LogFactory;
  * <p>
  * Is used in conjunction with {@link LogicalThreadPoolController}.
  * </p>
+ * <p>
+ * Panels waiting for a logical thread are held in a {@link LogicalThreadQueue} and are granted a thread in order of their
+ * {@link #getPollingPriority() priority}, then first come first served. The position in the queue is displayed while waiting and is refreshed
+ * on each poll.
+ * </p>
  *
  * @param <S> the polling criteria type
  * @param <T> the polling result type
@@ -20,8 +33,28 @@ public class PollingLogicalThreadPoolPanel<S extends Serializable, T extends Ser
 
 	private static final Log LOG = LogFactory.getLog(PollingLogicalThreadPoolPanel.class);
 
+	private static final String QUEUE_ATTR_PREFIX = "wc_polling_queue_";
+
 	private final boolean useLogicalThreadPool;
 
+	/**
+	 * Displays the position in the queue. Refreshed on each poll.
+	 */
+	private final WDiv queuePositionHolder = new WDiv() {
+		@Override
+		public boolean isVisible() {
+			return isUseLogicalThreadPool() && isPolling();
+		}
+	};
+
+	private final WText queuePositionText = new WText() {
+		@Override
+		public String getText() {
+			int position = getQueuePosition();
+			return position > 0 ? "Position " + position + " in queue." : null;
+		}
+	};
+
 	/**
 	 * Default constructor.
 	 */
@@ -43,6 +76,8 @@ public class PollingLogicalThreadPoolPanel<S extends Serializable, T extends Ser
 	public PollingLogicalThreadPoolPanel(final int delay, final boolean useLogicalThreadPool) {
 		super(delay);
 		this.useLogicalThreadPool = useLogicalThreadPool;
+		getContentHolder().add(queuePositionHolder);
+		queuePositionHolder.add(queuePositionText);
 	}
 
 	/**
@@ -68,8 +103,21 @@ public class PollingLogicalThreadPoolPanel<S extends Serializable, T extends Ser
 	 */
 	protected ResultHolder<S, T> handleASyncLogicalThreadPoolCall() {
 		LogicalThreadPoolController ctrl = getThreadController();
-		// Check thread available
-		if (ctrl.acquireThread()) {
+		LogicalThreadQueue queue = getThreadQueue();
+		// Release the threads held by abandoned services
+		for (int i = queue.takePendingReleases(); i > 0; i--) {
+			LOG.info("Releasing logical thread held by abandoned service.");
+			ctrl.releaseThread();
+		}
+		// Join the queue (again if the ticket was dropped)
+		Long ticket = getComponentModel().queueTicket;
+		if (ticket == null || queue.getPosition(ticket) == 0) {
+			ticket = queue.enqueue(getPollingPriority());
+			getOrCreateComponentModel().queueTicket = ticket;
+		}
+		// Check next in the queue and thread available
+		if (queue.isNext(ticket) && ctrl.acquireThread()) {
+			clearQueueTicket();
 			ResultHolder<S, T> result = null;
 			try {
 				result = super.handleASyncServiceCall();
@@ -87,14 +135,47 @@ public class PollingLogicalThreadPoolPanel<S extends Serializable, T extends Ser
 			return result;
 		} else {
 			// No thread available
-			LOG.info("Could not start service in logical pool. Will try next poll.");
+			LOG.info("Could not start service in logical pool. Position " + getQueuePosition() + " in queue. Will try next poll.");
 			return null;
 		}
 	}
 
+	/**
+	 * @return the position waiting for a logical thread (starting at 1), or 0 if not waiting
+	 */
+	public int getQueuePosition() {
+		Long ticket = getComponentModel().queueTicket;
+		return ticket == null ? 0 : getThreadQueue().getPosition(ticket);
+	}
+
+	/**
+	 * The position in the queue is refreshed on each poll while using the logical thread pool.
+	 *
+	 * @return the AJAX targets refreshed on each poll, or null
+	 */
+	@Override
+	public List<AjaxTarget> getPollingRefreshTargets() {
+		List<AjaxTarget> targets = super.getPollingRefreshTargets();
+		if (!isUseLogicalThreadPool()) {
+			return targets;
+		}
+		List<AjaxTarget> refresh = new ArrayList<>();
+		if (targets != null) {
+			refresh.addAll(targets);
+		}
+		refresh.add(queuePositionHolder);
+		return refresh;
+	}
+
+	@Override
+	public void doRefreshContent() {
+		clearQueueTicket();
+		super.doRefreshContent();
+	}
+
 	@Override
 	protected void handleStoppedPolling() {
-		if (isServiceRunning() && isUseLogicalThreadPool()) {
+		if (isServiceRunning() && isUseLogicalThreadPool() && !isServiceAbandoned()) {
 			getThreadController().releaseThread();
 		}
 		super.handleStoppedPolling();
@@ -102,13 +183,57 @@ public class PollingLogicalThreadPoolPanel<S extends Serializable, T extends Ser
 
 	@Override
 	protected void handleTimeoutPolling() {
-		if (isServiceRunning() && isUseLogicalThreadPool()) {
+		if (isServiceRunning() && isUseLogicalThreadPool() && !isServiceAbandoned()) {
 			// Even though the Thread could still be running. We will treat it as finished.
 			getThreadController().releaseThread();
 		}
+		clearQueueTicket();
 		super.handleTimeoutPolling();
 	}
 
+	/**
+	 * Leave the queue for a logical thread.
+	 */
+	protected void clearQueueTicket() {
+		Long ticket = getComponentModel().queueTicket;
+		if (ticket != null) {
+			getThreadQueue().remove(ticket);
+			getOrCreateComponentModel().queueTicket = null;
+		}
+	}
+
+	/**
+	 * The queue is held in the user context for each logical thread pool controller.
+	 *
+	 * @return the queue for the logical thread pool controller
+	 */
+	protected LogicalThreadQueue getThreadQueue() {
+		LogicalThreadPoolController ctrl = getThreadController();
+		String key = QUEUE_ATTR_PREFIX + (ctrl instanceof WComponent ? ((WComponent) ctrl).getId() : ctrl.getClass().getName());
+		UIContext uic = UIContextHolder.getCurrent();
+		synchronized (uic) {
+			LogicalThreadQueue queue = (LogicalThreadQueue) uic.getFwkAttribute(key);
+			if (queue == null) {
+				queue = new LogicalThreadQueue();
+				uic.setFwkAttribute(key, queue);
+			}
+			return queue;
+		}
+	}
+
+	/**
+	 * The logical thread is released by the next request for the user, so the sweeper does not hold or use the user context.
+	 *
+	 * @return the action to record the logical thread to be released, or null if not using a logical thread pool
+	 */
+	@Override
+	protected Runnable getAbandonedServiceRelease() {
+		if (isUseLogicalThreadPool()) {
+			return new ReleaseThreadAction(getThreadQueue());
+		}
+		return null;
+	}
+
 	/**
 	 * @return the logical thread pool controller
 	 */
@@ -120,4 +245,53 @@ public class PollingLogicalThreadPoolPanel<S extends Serializable, T extends Ser
 		return ctrl;
 	}
 
+	@Override
+	protected PollingLogicalThreadPoolModel<S, T> newComponentModel() {
+		return new PollingLogicalThreadPoolModel();
+	}
+
+	@Override
+	protected PollingLogicalThreadPoolModel<S, T> getOrCreateComponentModel() {
+		return (PollingLogicalThreadPoolModel) super.getOrCreateComponentModel();
+	}
+
+	@Override
+	protected PollingLogicalThreadPoolModel<S, T> getComponentModel() {
+		return (PollingLogicalThreadPoolModel) super.getComponentModel();
+	}
+
+	/**
+	 * This model holds the state information.
+	 *
+	 * @param <S> the criteria type
+	 * @param <T> the service action
+	 */
+	public static class PollingLogicalThreadPoolModel<S extends Serializable, T extends Serializable> extends PollingServiceModel<S, T> {
+
+		/**
+		 * Ticket waiting for a logical thread.
+		 */
+		private Long queueTicket;
+	}
+
+	/**
+	 * Record the logical thread held by an abandoned service to be released.
+	 */
+	private static final class ReleaseThreadAction implements Runnable {
+
+		private final LogicalThreadQueue queue;
+
+		/**
+		 * @param queue the queue for the logical thread pool controller
+		 */
+		private ReleaseThreadAction(final LogicalThreadQueue queue) {
+			this.queue = queue;
+		}
+
+		@Override
+		public void run() {
+			queue.addPendingRelease();
+		}
+	}
+
 }
@@ -0,0 +1,57 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+/**
+ * Records metrics on how the polling panels are performing.
+ * <p>
+ * The metrics are recorded against the service action and thread pool being used by the polling panel.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public interface PollingMetrics {
+
+	/**
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 * @param duration the time in milli seconds from starting polling to the result being available
+	 */
+	void recordPollingDuration(final String action, final String pool, final long duration);
+
+	/**
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 * @param polls the number of polls that did not find a result
+	 */
+	void recordNoResultPolls(final String action, final String pool, final int polls);
+
+	/**
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 */
+	void incrementRejected(final String action, final String pool);
+
+	/**
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 */
+	void incrementTimeout(final String action, final String pool);
+
+	/**
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 */
+	void incrementDeadlineExceeded(final String action, final String pool);
+
+	/**
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 */
+	void incrementCacheHit(final String action, final String pool);
+
+	/**
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 */
+	void incrementCacheMiss(final String action, final String pool);
+
+}
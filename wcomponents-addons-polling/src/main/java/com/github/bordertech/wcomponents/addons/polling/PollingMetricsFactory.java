@@ -0,0 +1,31 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.didums.Didums;
+
+/**
+ * Provides the single {@link PollingMetrics} instance shared by the polling panels and the services they run.
+ * <p>
+ * The implementation is looked up once, so the metrics are not split across more than one instance.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class PollingMetricsFactory {
+
+	private static final PollingMetrics METRICS = Didums.getService(PollingMetrics.class);
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private PollingMetricsFactory() {
+		//No-impl
+	}
+
+	/**
+	 * @return the polling metrics
+	 */
+	public static PollingMetrics getInstance() {
+		return METRICS;
+	}
+
+}
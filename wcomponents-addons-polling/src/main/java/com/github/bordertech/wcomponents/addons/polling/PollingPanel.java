@@ -13,6 +13,7 @@ import com.github.bordertech.wcomponents.WMessages;
 import com.github.bordertech.wcomponents.WPanel;
 import com.github.bordertech.wcomponents.WProgressBar;
 import com.github.bordertech.wcomponents.WText;
+import com.github.bordertech.wcomponents.WebUtilities;
 import com.github.bordertech.wcomponents.addons.common.WDiv;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -26,6 +27,12 @@ import java.util.List;
  * type {@link PollingStartType#AUTOMATIC} will start polling when the panel is made visible and {@link PollingStartType#BUTTON} provides a button
  * that the user can click to start polling.
  * </p>
+ * <p>
+ * The panel polls at a fixed interval unless a {@link PollingIntervalStrategy} is set, which is used to determine the delay before each poll.
+ * </p>
+ * <p>
+ * If the panel is contained in a {@link PollingCoordinator}, the coordinator does the AJAX polling on behalf of the panel.
+ * </p>
  *
  *
  * @author Jonathan Austin
@@ -82,6 +89,19 @@ public class PollingPanel extends WPanel {
 
 	private final WProgressBar pollingProgressBar = new WProgressBar(100);
 
+	/**
+	 * Displays the phase and items processed reported by the running service.
+	 */
+	private final WDiv progressDetail = new WDiv();
+
+	private final WText progressDetailText = new WText() {
+		@Override
+		public String getText() {
+			ServiceProgress progress = getPollingProgress();
+			return progress == null ? null : progress.getDescription();
+		}
+	};
+
 	private final WText progressBarScript = new WText() {
 		@Override
 		public boolean isVisible() {
@@ -107,21 +127,67 @@ public class PollingPanel extends WPanel {
 		}
 	};
 
+	/**
+	 * Script refreshed on each poll to display the progress reported by the running service.
+	 */
+	private final WText progressUpdateScript = new WText() {
+		@Override
+		public boolean isVisible() {
+			return pollingProgressBar.isVisible() && getPollingProgress() != null;
+		}
+
+		@Override
+		public String getText() {
+			return buildProgressUpdateScript(getPollingProgress());
+		}
+	};
+
 	/**
 	 * AJAX poller.
 	 */
 	private final WAjaxControl ajaxPolling = new WAjaxControl(null, ajaxPollingPanel) {
 		@Override
 		public int getDelay() {
-			return getPollingInterval();
+			return getNextPollingInterval();
+		}
+
+		@Override
+		public List<AjaxTarget> getTargets() {
+			List<AjaxTarget> refresh = getPollingRefreshTargets();
+			if (refresh == null || refresh.isEmpty()) {
+				return super.getTargets();
+			}
+			List<AjaxTarget> targets = new ArrayList<>(super.getTargets());
+			targets.addAll(refresh);
+			return targets;
 		}
 
 		@Override
 		public void handleRequest(final Request request) {
 			super.handleRequest(request);
 			// Check if Polling
-			if (isPollingTrigger() && checkForStopPolling()) {
-				doStoppedPollingPanelReload();
+			if (isPollingTrigger()) {
+				handlePoll();
+			}
+		}
+	};
+
+	/**
+	 * AJAX control to start the polling of a coordinator that is not already polling. The start and retry buttons only target the panel, so the
+	 * coordinator's poll container is repainted by this control.
+	 */
+	private final WAjaxControl ajaxCoordinatorStart = new WAjaxControl(null, ajaxPollingPanel) {
+		@Override
+		public List<AjaxTarget> getTargets() {
+			PollingCoordinator coordinator = getPollingCoordinator();
+			return coordinator == null ? super.getTargets() : Collections.singletonList(coordinator.getPollContainer());
+		}
+
+		@Override
+		public void handleRequest(final Request request) {
+			super.handleRequest(request);
+			if (AjaxHelper.isCurrentAjaxTrigger(this)) {
+				setVisible(false);
 			}
 		}
 	};
@@ -135,12 +201,7 @@ public class PollingPanel extends WPanel {
 			super.handleRequest(request);
 			// Reloading
 			if (AjaxHelper.isCurrentAjaxTrigger(this)) {
-				pollingContainer.reset();
-				if (getPollingStatus() == PollingStatus.STOPPED) {
-					handleStoppedPolling();
-				} else if (getPollingStatus() == PollingStatus.TIMEOUT) {
-					handleTimeoutPolling();
-				}
+				handlePollingReload();
 			}
 		}
 	};
@@ -191,16 +252,23 @@ public class PollingPanel extends WPanel {
 		ajaxPolling.setLoadOnce(true);
 		ajaxReload.setLoadOnce(true);
 		ajaxReload.setDelay(10);
+		ajaxCoordinatorStart.setLoadOnce(true);
+		ajaxCoordinatorStart.setDelay(10);
 		progressBarScript.setEncodeText(false);
+		progressUpdateScript.setEncodeText(false);
 
 		// Progress Detials
 		pollingProgressContainer.add(pollingText);
 		pollingProgressContainer.add(pollingProgressBar);
+		pollingProgressContainer.add(progressDetail);
+		progressDetail.add(progressDetailText);
 		pollingProgressContainer.add(progressBarScript);
 
 		// AJAX Details
 		ajaxPollingPanel.add(ajaxPolling);
+		ajaxPollingPanel.add(progressUpdateScript);
 		ajaxPollingPanel.add(ajaxReload);
+		ajaxPollingPanel.add(ajaxCoordinatorStart);
 
 		// Polling container is outside AJAX panel so it does not pulse)
 		holder.add(pollingContainer);
@@ -211,6 +279,7 @@ public class PollingPanel extends WPanel {
 		pollingContainer.setVisible(false);
 		ajaxPolling.setVisible(false);
 		ajaxReload.setVisible(false);
+		ajaxCoordinatorStart.setVisible(false);
 		retryButton.setVisible(false);
 		startButton.setVisible(false);
 	}
@@ -251,6 +320,58 @@ public class PollingPanel extends WPanel {
 		getOrCreateComponentModel().pollingInterval = interval;
 	}
 
+	/**
+	 * @return the strategy to determine the delay before each poll, or null for a fixed interval
+	 */
+	public PollingIntervalStrategy getPollingIntervalStrategy() {
+		return getComponentModel().intervalStrategy;
+	}
+
+	/**
+	 * @param strategy the strategy to determine the delay before each poll, or null for a fixed interval
+	 */
+	public void setPollingIntervalStrategy(final PollingIntervalStrategy strategy) {
+		getOrCreateComponentModel().intervalStrategy = strategy;
+	}
+
+	/**
+	 * The delay is capped at the maximum polling interval (see {@link PollingProperties#getMaxPollingInterval()}) so a polling panel is not
+	 * treated as abandoned.
+	 *
+	 * @return the delay in milli seconds before the next AJAX poll
+	 */
+	public int getNextPollingInterval() {
+		PollingIntervalStrategy strategy = getPollingIntervalStrategy();
+		int interval = strategy == null ? getPollingInterval() : strategy.getNextPollingInterval(this);
+		// Stretched when the service tier is saturated
+		interval = PollingGovernor.stretchInterval(interval, getPollingPriority());
+		return Math.min(interval, PollingProperties.getMaxPollingInterval());
+	}
+
+	/**
+	 * @return the number of AJAX polls since polling started
+	 */
+	public int getPollCount() {
+		return getComponentModel().pollCount;
+	}
+
+	/**
+	 * @return the time in milli seconds since polling started, or 0 if not polling
+	 */
+	public long getPollingElapsedTime() {
+		long start = getPollingStartMillis();
+		return start == 0 ? 0 : System.currentTimeMillis() - start;
+	}
+
+	/**
+	 * Provide the expected time the polling will take (eg from previous polling of the same action).
+	 *
+	 * @return the expected polling duration in milli seconds, or 0 if not known
+	 */
+	public long getExpectedPollingDuration() {
+		return 0;
+	}
+
 	/**
 	 * @param text the text displayed while polling
 	 */
@@ -265,11 +386,29 @@ public class PollingPanel extends WPanel {
 		return getComponentModel().pollingText;
 	}
 
+	/**
+	 * @return the priority of the panel when competing for resources
+	 */
+	public PollingPriority getPollingPriority() {
+		return getComponentModel().priority;
+	}
+
+	/**
+	 * @param priority the priority of the panel when competing for resources
+	 */
+	public void setPollingPriority(final PollingPriority priority) {
+		getOrCreateComponentModel().priority = priority == null ? PollingPriority.NORMAL : priority;
+	}
+
 	/**
 	 * @param pollingStatus the panel status
 	 */
 	public void setPollingStatus(final PollingStatus pollingStatus) {
-		getOrCreateComponentModel().serviceStatus = pollingStatus == null ? PollingStatus.STOPPED : pollingStatus;
+		PollingStatus status = pollingStatus == null ? PollingStatus.STOPPED : pollingStatus;
+		// Only update the model if changed
+		if (getComponentModel().serviceStatus != status) {
+			getOrCreateComponentModel().serviceStatus = status;
+		}
 	}
 
 	/**
@@ -320,6 +459,15 @@ public class PollingPanel extends WPanel {
 		return getComponentModel().extraTargets;
 	}
 
+	/**
+	 * The AJAX targets that will be refreshed on each poll while polling.
+	 *
+	 * @return the AJAX targets refreshed on each poll, or null
+	 */
+	public List<AjaxTarget> getPollingRefreshTargets() {
+		return null;
+	}
+
 	/**
 	 * Add an AJAX target to be refreshed when the polling is complete.
 	 *
@@ -390,9 +538,17 @@ public class PollingPanel extends WPanel {
 	}
 
 	/**
-	 * @return the time polling started
+	 * @return the time polling started, or null if not polling
 	 */
 	protected Date getPollingStartTime() {
+		long start = getPollingStartMillis();
+		return start == 0 ? null : new Date(start);
+	}
+
+	/**
+	 * @return the time polling started in milli seconds since the epoch, or 0 if not polling
+	 */
+	protected long getPollingStartMillis() {
 		return getComponentModel().pollingStartTime;
 	}
 
@@ -400,14 +556,32 @@ public class PollingPanel extends WPanel {
 	 * Set the polling start time.
 	 */
 	protected void setPollingStartTime() {
-		getOrCreateComponentModel().pollingStartTime = new Date();
+		getOrCreateComponentModel().pollingStartTime = System.currentTimeMillis();
 	}
 
 	/**
 	 * Clear the polling start time.
 	 */
 	protected void clearPollingStartTime() {
-		getOrCreateComponentModel().pollingStartTime = null;
+		if (getComponentModel().pollingStartTime != 0) {
+			getOrCreateComponentModel().pollingStartTime = 0;
+		}
+	}
+
+	/**
+	 * Increment the number of AJAX polls.
+	 */
+	protected void incrementPollCount() {
+		getOrCreateComponentModel().pollCount++;
+	}
+
+	/**
+	 * Reset the number of AJAX polls.
+	 */
+	protected void clearPollCount() {
+		if (getComponentModel().pollCount != 0) {
+			getOrCreateComponentModel().pollCount = 0;
+		}
 	}
 
 	/**
@@ -419,12 +593,11 @@ public class PollingPanel extends WPanel {
 		if (timeout <= 0) {
 			return false;
 		}
-		Date start = getPollingStartTime();
-		if (start == null) {
+		long start = getPollingStartMillis();
+		if (start == 0) {
 			return false;
 		}
-		long sofar = new Date().getTime() - start.getTime();
-		return sofar > timeout * 1000;
+		return System.currentTimeMillis() - start > timeout * 1000L;
 	}
 
 	/**
@@ -467,8 +640,16 @@ public class PollingPanel extends WPanel {
 		getMessages().reset();
 		pollingContainer.reset();
 		pollingContainer.setVisible(true);
-		ajaxPolling.setVisible(true);
+		// Check if the polling is done by a coordinator
+		PollingCoordinator coordinator = getPollingCoordinator();
+		if (coordinator == null) {
+			ajaxPolling.setVisible(true);
+		} else {
+			startCoordinatorPolling(coordinator);
+			coordinator.registerPanel(this);
+		}
 		setPollingStartTime();
+		clearPollCount();
 		handleStartedPolling();
 	}
 
@@ -476,16 +657,63 @@ public class PollingPanel extends WPanel {
 	 * Do AJAX Reload as polling stopped.
 	 */
 	protected void doStoppedPollingPanelReload() {
-		pollingContainer.reset();
-		List<AjaxTarget> targets = getAjaxTargets();
-		if (targets != null && !targets.isEmpty()) {
-			ajaxReload.addTargets(targets);
+		PollingCoordinator coordinator = getPollingCoordinator();
+		if (coordinator == null) {
+			pollingContainer.reset();
+			List<AjaxTarget> targets = getAjaxTargets();
+			if (targets != null && !targets.isEmpty()) {
+				ajaxReload.addTargets(targets);
+			}
+			pollingContainer.setVisible(true);
+			ajaxReload.setVisible(true);
+		} else {
+			// Coordinator reloads the panel
+			startCoordinatorPolling(coordinator);
+			coordinator.doReloadPanel(this);
 		}
-		pollingContainer.setVisible(true);
-		ajaxReload.setVisible(true);
 		clearPollingStartTime();
 	}
 
+	/**
+	 * Handle an AJAX poll.
+	 */
+	protected void handlePoll() {
+		incrementPollCount();
+		if (checkForStopPolling()) {
+			doStoppedPollingPanelReload();
+		}
+	}
+
+	/**
+	 * Handle the panel being reloaded as polling stopped.
+	 */
+	protected void handlePollingReload() {
+		pollingContainer.reset();
+		if (getPollingStatus() == PollingStatus.STOPPED) {
+			handleStoppedPolling();
+		} else if (getPollingStatus() == PollingStatus.TIMEOUT) {
+			handleTimeoutPolling();
+		}
+	}
+
+	/**
+	 * Repaint the coordinator's poll container if the coordinator is not already polling and the current request will not repaint it.
+	 *
+	 * @param coordinator the coordinator doing the AJAX polling for this panel
+	 */
+	private void startCoordinatorPolling(final PollingCoordinator coordinator) {
+		if (!coordinator.isPolling() && !coordinator.isCoordinatorTrigger()) {
+			ajaxCoordinatorStart.setVisible(true);
+		}
+	}
+
+	/**
+	 * @return the coordinator doing the AJAX polling for this panel, or null if the panel does its own polling
+	 */
+	protected PollingCoordinator getPollingCoordinator() {
+		return WebUtilities.getAncestorOfClass(PollingCoordinator.class, this);
+	}
+
 	/**
 	 * The messages for the panel.
 	 *
@@ -560,6 +788,15 @@ public class PollingPanel extends WPanel {
 		return pollingContainer.isVisible();
 	}
 
+	/**
+	 * The progress reported by the running service. Displayed in the progress bar on each poll.
+	 *
+	 * @return the latest progress reported, or null if no progress reported
+	 */
+	public ServiceProgress getPollingProgress() {
+		return null;
+	}
+
 	/**
 	 * @return the script to step the progress bar
 	 */
@@ -571,6 +808,8 @@ public class PollingPanel extends WPanel {
 		script.append("  window.setInterval(stepProgressBar, 250, elem);");
 		script.append("}");
 		script.append("function stepProgressBar(bar) {");
+		// Stop stepping once the service reports its real progress
+		script.append("   if (bar.getAttribute('data-wc-progress')) { return; }");
 		script.append("   if (bar.value > 99) { bar.value = 0; }");
 		script.append("   bar.value++;");
 		script.append("}");
@@ -579,6 +818,66 @@ public class PollingPanel extends WPanel {
 		return script.toString();
 	}
 
+	/**
+	 * @param progress the progress reported by the running service
+	 * @return the script to display the progress reported
+	 */
+	protected String buildProgressUpdateScript(final ServiceProgress progress) {
+		if (progress == null) {
+			return null;
+		}
+		StringBuilder script = new StringBuilder();
+		script.append("<script type='text/javascript'>");
+		if (progress.getPercent() >= 0) {
+			script.append("(function() {");
+			script.append("  var bar = document.getElementById('").append(pollingProgressBar.getId()).append("');");
+			script.append("  if (bar) { bar.setAttribute('data-wc-progress', 'true'); bar.value = ").append(progress.getPercent()).append("; }");
+			script.append("})();");
+		}
+		String description = progress.getDescription();
+		if (description != null) {
+			script.append("(function() {");
+			script.append("  var detail = document.getElementById('").append(progressDetail.getId()).append("');");
+			script.append("  if (detail) { detail.textContent = '").append(escapeScriptString(description)).append("'; }");
+			script.append("})();");
+		}
+		script.append("</script>");
+		return script.toString();
+	}
+
+	/**
+	 * @param text the text to include in a script string literal
+	 * @return the escaped text
+	 */
+	private static String escapeScriptString(final String text) {
+		StringBuilder escaped = new StringBuilder(text.length());
+		for (char c : text.toCharArray()) {
+			switch (c) {
+				case '\\':
+				case '\'':
+				case '"':
+					escaped.append('\\').append(c);
+					break;
+				case '<':
+					escaped.append("\\u003c");
+					break;
+				case '>':
+					escaped.append("\\u003e");
+					break;
+				case '&':
+					escaped.append("\\u0026");
+					break;
+				case '\n':
+				case '\r':
+					escaped.append(' ');
+					break;
+				default:
+					escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
 	@Override
 	protected PollingModel newComponentModel() {
 		return new PollingModel();
@@ -599,6 +898,11 @@ public class PollingPanel extends WPanel {
 	 */
 	public static class PollingModel extends PanelModel {
 
+		/**
+		 * Declared so compatible changes to the model do not break sessions serialized by an earlier version.
+		 */
+		private static final long serialVersionUID = 1L;
+
 		/**
 		 * Service status.
 		 */
@@ -614,11 +918,26 @@ public class PollingPanel extends WPanel {
 		 */
 		private int pollingInterval;
 
+		/**
+		 * Strategy to determine the polling interval.
+		 */
+		private PollingIntervalStrategy intervalStrategy;
+
+		/**
+		 * Number of polls since polling started.
+		 */
+		private int pollCount;
+
 		/**
 		 * Extra AJAX targets when polling stops.
 		 */
 		private List<AjaxTarget> extraTargets;
 
+		/**
+		 * Priority when competing for resources.
+		 */
+		private PollingPriority priority = PollingPriority.NORMAL;
+
 		/**
 		 * Start type.
 		 */
@@ -630,9 +949,10 @@ public class PollingPanel extends WPanel {
 		private int pollingTimeout = DEFAULT_POLLING_TIMEOUT;
 
 		/**
-		 * Time polling started.
+		 * Time polling started in milli seconds since the epoch (0 if not polling). The model can be replicated to another node, so the wall clock
+		 * is used rather than a monotonic clock.
 		 */
-		private Date pollingStartTime;
+		private long pollingStartTime;
 
 		/**
 		 * Use retry button flag.
@@ -0,0 +1,193 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.TaskFuture;
+import com.github.bordertech.taskmaster.service.ResultHolder;
+import com.github.bordertech.taskmaster.service.ServiceAction;
+import com.github.bordertech.taskmaster.service.ServiceHelper;
+import com.github.bordertech.taskmaster.service.exception.RejectedServiceException;
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.cache.Cache;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Speculatively calls services into the result cache before the user starts the polling panel.
+ * <p>
+ * The number of prefetches running at the same time is limited by a global budget (see {@link PollingProperties#getPrefetchBudget()}) and
+ * prefetches run in their own thread pool (see {@link PollingProperties#getPrefetchThreadPool()}), which should be configured as a low priority
+ * pool. A prefetch that is over budget is skipped rather than queued.
+ * </p>
+ * <p>
+ * When the panel is started it claims the prefetch in progress for its cache key (if any), so the service is not called twice. A claimed
+ * prefetch is registered as a shared service call (see {@link SharedServiceCalls}), so the panels of other sessions that claim it attach to the
+ * same service call. The prefetch is kept until it has finished.
+ * </p>
+ * <p>
+ * Each panel that asks for a prefetch is recorded as an owner of the prefetch for the key. A prefetch is only cancelled when all of its owners
+ * have cancelled it, so one session cannot cancel the prefetch another session is waiting on. Once claimed, the prefetch is only cancelled when
+ * the last panel detaches from the shared service call.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class PollingPrefetcher {
+
+	private static final Log LOG = LogFactory.getLog(PollingPrefetcher.class);
+
+	private static final Map<String, Prefetch> PREFETCHES = new LinkedHashMap<>();
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private PollingPrefetcher() {
+		//No-impl
+	}
+
+	/**
+	 * Start a prefetch of the service result into the cache, unless already cached, already being prefetched or over budget.
+	 *
+	 * @param criteria the service criteria
+	 * @param action the service action
+	 * @param cache the result cache
+	 * @param key the cache key
+	 * @param owner identifies the panel asking for the prefetch
+	 * @param <S> the criteria type
+	 * @param <T> the result type
+	 * @return true if a prefetch was started
+	 */
+	public static <S extends Serializable, T extends Serializable> boolean prefetch(final S criteria, final ServiceAction<S, T> action,
+			final Cache<String, ResultHolder> cache, final String key, final String owner) {
+		if (key == null || cache.containsKey(key)) {
+			return false;
+		}
+		synchronized (PREFETCHES) {
+			purgeFinished();
+			Prefetch current = PREFETCHES.get(key);
+			if (current != null) {
+				// Already being prefetched for another panel
+				current.owners.add(owner);
+				return false;
+			}
+			if (PREFETCHES.size() >= PollingProperties.getPrefetchBudget()) {
+				LOG.debug("Prefetch budget used. Skipping prefetch for key [" + key + "].");
+				return false;
+			}
+			try {
+				// Report progress against the cache key, so the panel that claims the prefetch can display its progress
+				TaskFuture<ResultHolder<S, T>> future = ServiceHelper.submitAsync(criteria, ServiceProgressRegistry.wrap(action, key), cache, key,
+						PollingProperties.getPrefetchThreadPool(), true);
+				if (!future.isDone()) {
+					PREFETCHES.put(key, new Prefetch(future, owner));
+				}
+				return true;
+			} catch (RejectedServiceException e) {
+				LOG.debug("Could not start prefetch for key [" + key + "]. " + e.getMessage());
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Claim the prefetch in progress for the key. The caller is attached to the prefetch as a shared service call and must detach from it (see
+	 * {@link SharedServiceCalls#detach(String, TaskFuture)}) when it no longer needs the result. The claimed prefetch is no longer cancelled by the
+	 * prefetcher.
+	 *
+	 * @param key the cache key
+	 * @param <T> the future result type
+	 * @return the future of the prefetch in progress, or null if no prefetch in progress
+	 */
+	public static <T> TaskFuture<T> claim(final String key) {
+		if (key == null) {
+			return null;
+		}
+		synchronized (PREFETCHES) {
+			Prefetch prefetch = PREFETCHES.get(key);
+			if (prefetch == null || prefetch.future.isDone()) {
+				return null;
+			}
+			if (prefetch.claimed) {
+				// Already claimed by another panel
+				return SharedServiceCalls.attach(key);
+			}
+			prefetch.claimed = true;
+			// Reports its progress against the cache key
+			return SharedServiceCalls.register(key, (TaskFuture<T>) prefetch.future, key);
+		}
+	}
+
+	/**
+	 * Cancel the prefetch in progress for the key on behalf of the owner. The prefetch is only cancelled once it has no other owners and has not
+	 * been claimed.
+	 *
+	 * @param key the cache key
+	 * @param owner identifies the panel that asked for the prefetch
+	 */
+	public static void cancel(final String key, final String owner) {
+		if (key == null || owner == null) {
+			return;
+		}
+		TaskFuture<?> future = null;
+		synchronized (PREFETCHES) {
+			Prefetch prefetch = PREFETCHES.get(key);
+			if (prefetch == null || !prefetch.owners.remove(owner)) {
+				// Not an owner of the prefetch in progress
+				return;
+			}
+			if (prefetch.owners.isEmpty() && !prefetch.claimed) {
+				PREFETCHES.remove(key);
+				future = prefetch.future;
+			}
+		}
+		if (future != null && !future.isDone()) {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * @return the number of prefetches in progress
+	 */
+	public static int getPrefetchCount() {
+		synchronized (PREFETCHES) {
+			purgeFinished();
+			return PREFETCHES.size();
+		}
+	}
+
+	/**
+	 * Remove the prefetches that have finished, which returns them to the budget.
+	 */
+	private static void purgeFinished() {
+		for (Iterator<Prefetch> iter = PREFETCHES.values().iterator(); iter.hasNext();) {
+			if (iter.next().future.isDone()) {
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Prefetch in progress and the panels that asked for it.
+	 */
+	private static final class Prefetch {
+
+		private final TaskFuture<?> future;
+
+		private final Set<String> owners = new HashSet<>();
+
+		private boolean claimed;
+
+		/**
+		 * @param future the future of the prefetch
+		 * @param owner identifies the panel that started the prefetch
+		 */
+		private Prefetch(final TaskFuture<?> future, final String owner) {
+			this.future = future;
+			this.owners.add(owner);
+		}
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+/**
+ * Priority of the polling panel when competing for resources.
+ *
+ * @since 1.0.6
+ */
+public enum PollingPriority {
+	/**
+	 * Background panels that can wait.
+	 */
+	LOW,
+	/**
+	 * Default priority.
+	 */
+	NORMAL,
+	/**
+	 * Interactive panels the user is waiting on.
+	 */
+	HIGH
+}
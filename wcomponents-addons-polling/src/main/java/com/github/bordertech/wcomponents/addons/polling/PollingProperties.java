@@ -0,0 +1,225 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.config.Config;
+
+/**
+ * This class contains references to all constants and configuration options used by the polling panels.
+ *
+ * @since 1.0.6
+ */
+public final class PollingProperties {
+
+	private static final String PREFIX = "bordertech.wcomponents.addons.polling.";
+
+	/**
+	 * The maximum number of service actions running at the same time in a pool when using the virtual thread executor.
+	 */
+	public static final String VIRTUAL_CONCURRENCY = PREFIX + "virtual.concurrency";
+
+	/**
+	 * The maximum number of service actions waiting to run in a pool when using the virtual thread executor.
+	 */
+	public static final String VIRTUAL_QUEUE_SIZE = PREFIX + "virtual.queue.size";
+
+	/**
+	 * How long (in seconds) a finished local task is kept so its result can be collected.
+	 */
+	public static final String LOCAL_TASK_RETENTION = PREFIX + "local.task.retention";
+
+	/**
+	 * How long (in seconds) a polling task can go without a poll before it is treated as abandoned.
+	 */
+	public static final String ABANDONED_GRACE = PREFIX + "abandoned.grace";
+
+	/**
+	 * How often (in seconds) to check for abandoned polling tasks.
+	 */
+	public static final String ABANDONED_SWEEP_INTERVAL = PREFIX + "abandoned.sweep.interval";
+
+	/**
+	 * The maximum number of service results held in the node local result store.
+	 */
+	public static final String LOCAL_RESULT_STORE_MAX = PREFIX + "local.result.store.max";
+
+	/**
+	 * How long (in seconds) a result can go unused in the local result store before it is removed.
+	 */
+	public static final String LOCAL_RESULT_STORE_IDLE = PREFIX + "local.result.store.idle";
+
+	/**
+	 * The maximum number of prefetches running at the same time.
+	 */
+	public static final String PREFETCH_BUDGET = PREFIX + "prefetch.budget";
+
+	/**
+	 * The thread pool prefetches run in.
+	 */
+	public static final String PREFETCH_THREAD_POOL = PREFIX + "prefetch.pool";
+
+	/**
+	 * The number of consecutive failures of a service action that opens its circuit breaker.
+	 */
+	public static final String CIRCUIT_FAILURE_THRESHOLD = PREFIX + "circuit.failure.threshold";
+
+	/**
+	 * How long (in seconds) an open circuit breaker fails fast before allowing a trial call.
+	 */
+	public static final String CIRCUIT_OPEN_DURATION = PREFIX + "circuit.open.duration";
+
+	/**
+	 * The number of rejected service calls in 10 seconds before the governor starts shedding load.
+	 */
+	public static final String GOVERNOR_REJECTED_THRESHOLD = PREFIX + "governor.rejected.threshold";
+
+	/**
+	 * The number of service actions waiting to run before the governor starts shedding load.
+	 */
+	public static final String GOVERNOR_QUEUE_THRESHOLD = PREFIX + "governor.queue.threshold";
+
+	/**
+	 * The maximum factor the governor stretches the polling delay by.
+	 */
+	public static final String GOVERNOR_MAX_STRETCH = PREFIX + "governor.max.stretch";
+
+	/**
+	 * The maximum time (in seconds) a low priority panel defers starting its service while the governor is shedding load.
+	 */
+	public static final String GOVERNOR_MAX_DEFERRAL = PREFIX + "governor.max.deferral";
+
+	private static final String DEFAULT_POOL = "default";
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private PollingProperties() {
+		//No-impl
+	}
+
+	/**
+	 * The concurrency for a pool can be set with the pool name as a suffix (eg {@code virtual.concurrency.mypool}), otherwise the default
+	 * concurrency is used.
+	 *
+	 * @param pool the pool name or null for the default pool
+	 * @return the maximum number of service actions running at the same time in the pool
+	 */
+	public static int getVirtualConcurrency(final String pool) {
+		int defaultConcurrency = Config.getInstance().getInt(VIRTUAL_CONCURRENCY, 50);
+		String name = pool == null ? DEFAULT_POOL : pool;
+		return Config.getInstance().getInt(VIRTUAL_CONCURRENCY + "." + name, defaultConcurrency);
+	}
+
+	/**
+	 * The queue size for a pool can be set with the pool name as a suffix (eg {@code virtual.queue.size.mypool}), otherwise the default queue
+	 * size is used.
+	 *
+	 * @param pool the pool name or null for the default pool
+	 * @return the maximum number of service actions waiting to run in the pool
+	 */
+	public static int getVirtualQueueSize(final String pool) {
+		int defaultSize = Config.getInstance().getInt(VIRTUAL_QUEUE_SIZE, 500);
+		String name = pool == null ? DEFAULT_POOL : pool;
+		return Config.getInstance().getInt(VIRTUAL_QUEUE_SIZE + "." + name, defaultSize);
+	}
+
+	/**
+	 * @return the time in milli seconds a polling task can go without a poll before it is treated as abandoned
+	 */
+	public static long getAbandonedGrace() {
+		return Config.getInstance().getInt(ABANDONED_GRACE, 60) * 1000L;
+	}
+
+	/**
+	 * The longest delay between polls is a third of the abandoned grace period, so a panel that is still polling always polls within the grace
+	 * period even when its interval has been backed off or stretched.
+	 *
+	 * @return the maximum delay in milli seconds between polls
+	 */
+	public static int getMaxPollingInterval() {
+		return (int) Math.min(Integer.MAX_VALUE, getAbandonedGrace() / 3);
+	}
+
+	/**
+	 * @return the time in milli seconds between checks for abandoned polling tasks
+	 */
+	public static long getAbandonedSweepInterval() {
+		return Config.getInstance().getInt(ABANDONED_SWEEP_INTERVAL, 30) * 1000L;
+	}
+
+	/**
+	 * @return the maximum number of service results held in the node local result store
+	 */
+	public static int getLocalResultStoreMax() {
+		return Config.getInstance().getInt(LOCAL_RESULT_STORE_MAX, 1000);
+	}
+
+	/**
+	 * @return how long (in milliseconds) a result can go unused in the local result store before it is removed
+	 */
+	public static long getLocalResultStoreIdle() {
+		return Config.getInstance().getInt(LOCAL_RESULT_STORE_IDLE, 1800) * 1000L;
+	}
+
+	/**
+	 * @return the maximum number of prefetches running at the same time
+	 */
+	public static int getPrefetchBudget() {
+		return Config.getInstance().getInt(PREFETCH_BUDGET, 10);
+	}
+
+	/**
+	 * @return the thread pool prefetches run in, or null for the default pool
+	 */
+	public static String getPrefetchThreadPool() {
+		return Config.getInstance().getString(PREFETCH_THREAD_POOL, null);
+	}
+
+	/**
+	 * @return the number of consecutive failures of a service action that opens its circuit breaker
+	 */
+	public static int getCircuitFailureThreshold() {
+		return Config.getInstance().getInt(CIRCUIT_FAILURE_THRESHOLD, 5);
+	}
+
+	/**
+	 * @return the time in milli seconds an open circuit breaker fails fast
+	 */
+	public static long getCircuitOpenDuration() {
+		return Config.getInstance().getInt(CIRCUIT_OPEN_DURATION, 30) * 1000L;
+	}
+
+	/**
+	 * @return the number of rejected service calls in 10 seconds before the governor starts shedding load
+	 */
+	public static int getGovernorRejectedThreshold() {
+		return Config.getInstance().getInt(GOVERNOR_REJECTED_THRESHOLD, 20);
+	}
+
+	/**
+	 * @return the number of service actions waiting to run before the governor starts shedding load
+	 */
+	public static int getGovernorQueueThreshold() {
+		return Config.getInstance().getInt(GOVERNOR_QUEUE_THRESHOLD, 100);
+	}
+
+	/**
+	 * @return the maximum factor the governor stretches the polling delay by
+	 */
+	public static double getGovernorMaxStretch() {
+		return Config.getInstance().getDouble(GOVERNOR_MAX_STRETCH, 8.0);
+	}
+
+	/**
+	 * @return the maximum time in milli seconds a low priority panel defers starting its service while the governor is shedding load
+	 */
+	public static long getGovernorMaxDeferral() {
+		return Config.getInstance().getInt(GOVERNOR_MAX_DEFERRAL, 60) * 1000L;
+	}
+
+	/**
+	 * @return the time in milli seconds a finished local task is kept
+	 */
+	public static long getLocalTaskRetention() {
+		return Config.getInstance().getInt(LOCAL_TASK_RETENTION, 600) * 1000L;
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.github.bordertech.wcomponents.addons.polling;
 
+import com.github.bordertech.didums.Didums;
 import com.github.bordertech.taskmaster.TaskFuture;
 import com.github.bordertech.taskmaster.service.ResultHolder;
 import com.github.bordertech.taskmaster.service.ServiceAction;
@@ -13,7 +14,12 @@ import com.github.bordertech.wcomponents.BeanProviderBound;
 import com.github.bordertech.wcomponents.Request;
 import com.github.bordertech.wcomponents.addons.common.WDiv;
 import java.io.Serializable;
+import java.lang.ref.SoftReference;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.cache.Cache;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -40,6 +46,28 @@ import org.apache.commons.logging.LogFactory;
  * <li>{@link #handleInitResultContent(com.github.bordertech.wcomponents.Request)} - init the result content on successful service call.</li>
  * <li>{@link #handleInitPollingPanel(com.github.bordertech.wcomponents.Request) } - init the polling panel.</li>
  * </ul>
+ * <p>
+ * By default each AJAX poll only checks if the service has finished. Setting a long poll wait via {@link #setLongPollWait(int)} will hold the
+ * AJAX poll on the server until the service completes or the wait expires, so the completion is reported on the poll in progress and the number of
+ * idle polls is reduced. As requests for the same session are usually processed one at a time, the wait should be kept to a few seconds.
+ * </p>
+ * <p>
+ * When using a cached result, {@link #setUseSharedServiceCall(boolean)} allows panels with the same cache key to share the service call in
+ * progress instead of each panel starting the service.
+ * </p>
+ * <p>
+ * When using a cached result, {@link #setUseStaleResult(boolean)} keeps a soft copy of the last successful result. If the cache entry expires
+ * while the content is displayed, the stale result continues to be displayed while the service is called again in the background, and the panel
+ * is reloaded once the refreshed result is available.
+ * </p>
+ * <p>
+ * Service actions are submitted to the TaskMaster thread pools unless {@link #setUseVirtualThreads(boolean)} is set, in which case they are run by
+ * the {@link VirtualThreadServiceExecutor}.
+ * </p>
+ * <p>
+ * A running service is registered with the {@link AbandonedPollingSweeper}, unless the task statuses are shared across a cluster. If the panel
+ * stops polling without stopping the service (eg the user navigates away), the service is cancelled once the grace period has passed.
+ * </p>
  *
  * @param <S> the polling criteria type
  * @param <T> the polling result type
@@ -50,6 +78,13 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 
 	private static final Log LOG = LogFactory.getLog(PollingServicePanel.class);
 
+	private static final TaskStatusRegistry TASK_STATUS = Didums.getService(TaskStatusRegistry.class);
+
+	/**
+	 * Identifies this node, so a poll can tell if the service call is running on another node.
+	 */
+	private static final String NODE_ID = UUID.randomUUID().toString();
+
 	private final WDiv contentResultHolder = new WDiv() {
 		@Override
 		protected void preparePaintComponent(final Request request) {
@@ -167,6 +202,168 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 		getOrCreateComponentModel().useCachedResult = useCachedResult;
 	}
 
+	/**
+	 * @return true if run the service action on a virtual thread
+	 */
+	public boolean isUseVirtualThreads() {
+		return getComponentModel().useVirtualThreads;
+	}
+
+	/**
+	 * Run the service action on a virtual thread instead of the TaskMaster thread pool. The service thread pool name is used to limit the number of
+	 * service actions running at the same time.
+	 *
+	 * @param useVirtualThreads true if run the service action on a virtual thread
+	 */
+	public void setUseVirtualThreads(final boolean useVirtualThreads) {
+		getOrCreateComponentModel().useVirtualThreads = useVirtualThreads;
+	}
+
+	/**
+	 * @return true if panels with the same cache key share the service call in progress
+	 */
+	public boolean isUseSharedServiceCall() {
+		return getComponentModel().useSharedServiceCall;
+	}
+
+	/**
+	 * Panels with the same cache key will share the service call in progress. Only applies when using a cached result.
+	 *
+	 * @param useSharedServiceCall true if panels with the same cache key share the service call in progress
+	 */
+	public void setUseSharedServiceCall(final boolean useSharedServiceCall) {
+		getOrCreateComponentModel().useSharedServiceCall = useSharedServiceCall;
+	}
+
+	/**
+	 * @return true if the service action runs with a deadline taken from the polling timeout
+	 */
+	public boolean isUseServiceDeadline() {
+		return getComponentModel().useServiceDeadline;
+	}
+
+	/**
+	 * Run the service action with a deadline taken from the polling timeout.
+	 * <p>
+	 * The service code can check the deadline with {@link ServiceDeadline} and stop early. A service action still running at the deadline is
+	 * interrupted, which frees its thread.
+	 * </p>
+	 *
+	 * @param useServiceDeadline true if the service action runs with a deadline taken from the polling timeout
+	 */
+	public void setUseServiceDeadline(final boolean useServiceDeadline) {
+		getOrCreateComponentModel().useServiceDeadline = useServiceDeadline;
+	}
+
+	/**
+	 * @return the deadline of the service call in milli seconds since the epoch, or 0 if no deadline
+	 */
+	public long getServiceDeadline() {
+		int timeout = getPollingTimeout();
+		if (!isUseServiceDeadline() || timeout <= 0) {
+			return 0;
+		}
+		// The service is started before polling starts
+		long start = getPollingStartMillis();
+		return (start == 0 ? System.currentTimeMillis() : start) + timeout * 1000L;
+	}
+
+	/**
+	 * @return the retry policy, or null if failed service calls are not retried
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return getComponentModel().retryPolicy;
+	}
+
+	/**
+	 * @param retryPolicy the retry policy, or null if failed service calls are not retried
+	 */
+	public void setRetryPolicy(final RetryPolicy retryPolicy) {
+		getOrCreateComponentModel().retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * @return true if the service result is prefetched into the cache before the panel is started
+	 */
+	public boolean isUsePrefetch() {
+		return getComponentModel().usePrefetch;
+	}
+
+	/**
+	 * Prefetch the service result into the cache when the panel is first painted, so the result is ready when the user starts the panel.
+	 * <p>
+	 * Only applies to a panel using the cache with a start type of BUTTON or MANUAL. The criteria must be set before the panel is painted.
+	 * </p>
+	 *
+	 * @param usePrefetch true if prefetch the service result into the cache before the panel is started
+	 */
+	public void setUsePrefetch(final boolean usePrefetch) {
+		getOrCreateComponentModel().usePrefetch = usePrefetch;
+	}
+
+	/**
+	 * Cancel the prefetch for the panel (if still in progress).
+	 */
+	public void doCancelPrefetch() {
+		String owner = getComponentModel().prefetchOwner;
+		if (owner != null) {
+			PollingPrefetcher.cancel(getServiceCacheKey(), owner);
+			getOrCreateComponentModel().prefetchOwner = null;
+		}
+	}
+
+	/**
+	 * @return true if a result that is not cached is held in the node local result store instead of the session
+	 */
+	public boolean isUseLocalResultStore() {
+		return getComponentModel().useLocalResultStore;
+	}
+
+	/**
+	 * Keep a result that is not cached out of the session.
+	 * <p>
+	 * Only a handle to the result is held by the panel, and the result is held in the {@link LocalResultStore}. If the result is no longer in the
+	 * store (eg evicted or the session has failed over to another node), the service is called again with the same criteria.
+	 * </p>
+	 *
+	 * @param useLocalResultStore true if a result that is not cached is held in the node local result store
+	 */
+	public void setUseLocalResultStore(final boolean useLocalResultStore) {
+		getOrCreateComponentModel().useLocalResultStore = useLocalResultStore;
+	}
+
+	/**
+	 * @return true if display the last successful result while the expired cached result is reloaded
+	 */
+	public boolean isUseStaleResult() {
+		return getComponentModel().useStaleResult;
+	}
+
+	/**
+	 * Display the last successful result while an expired cached result is reloaded. Only applies when using a cached result.
+	 *
+	 * @param useStaleResult true if display the last successful result while the expired cached result is reloaded
+	 */
+	public void setUseStaleResult(final boolean useStaleResult) {
+		getOrCreateComponentModel().useStaleResult = useStaleResult;
+	}
+
+	/**
+	 * @return the time in milli seconds an AJAX poll waits on the server for the service to complete, or 0 to not wait
+	 */
+	public int getLongPollWait() {
+		return getComponentModel().longPollWait;
+	}
+
+	/**
+	 * Hold each AJAX poll on the server until the service completes or the wait expires.
+	 *
+	 * @param longPollWait the time in milli seconds to wait for the service to complete, or 0 to not wait
+	 */
+	public void setLongPollWait(final int longPollWait) {
+		getOrCreateComponentModel().longPollWait = longPollWait > 0 ? longPollWait : 0;
+	}
+
 	/**
 	 * @return the service result, or null if still processing.
 	 */
@@ -177,6 +374,8 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 				return handleCacheExpired();
 			}
 			return resultHolder;
+		} else if (isUseLocalResultStore()) {
+			return LocalResultStore.get(getComponentModel().resultHandle);
 		} else {
 			return getComponentModel().serviceResult;
 		}
@@ -196,18 +395,139 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 			} else {
 				getServiceCache().put(getServiceCacheKey(), serviceResult);
 			}
+		} else if (isUseLocalResultStore()) {
+			// Only the handle is held in the session
+			String handle = getComponentModel().resultHandle;
+			if (handle != null) {
+				LocalResultStore.remove(handle);
+			}
+			if (serviceResult != null) {
+				getOrCreateComponentModel().resultHandle = LocalResultStore.put(serviceResult);
+			} else if (handle != null) {
+				getOrCreateComponentModel().resultHandle = null;
+			}
 		} else {
 			getOrCreateComponentModel().serviceResult = serviceResult;
 		}
 	}
 
 	/**
+	 * Provide the result for an expired cache item.
+	 * <p>
+	 * If displaying the stale result (see {@link #isUseStaleResult()}), the stale result is used if still available. Otherwise null is returned
+	 * and the service is called again when the panel is prepared for paint (see {@link #handleRecomputeServiceResult()}).
+	 * </p>
 	 *
-	 * @return the result for an expired cache item
+	 * @return the result for an expired cache item, or null if not available
 	 */
 	protected ResultHolder<S, T> handleCacheExpired() {
-		// TODO Maybe try and reload if expired
-		throw new IllegalStateException("Cache entry has expired");
+		if (!isUseStaleResult()) {
+			throw new IllegalStateException("Cache entry has expired");
+		}
+		return getStaleServiceResult();
+	}
+
+	/**
+	 * @return the last successful result, or null if not available
+	 */
+	protected ResultHolder<S, T> getStaleServiceResult() {
+		if (!isUseStaleResult()) {
+			return null;
+		}
+		SoftReference<ResultHolder<S, T>> ref = getComponentModel().staleResult;
+		return ref == null ? null : ref.get();
+	}
+
+	/**
+	 * Keep a soft copy of the last successful result.
+	 *
+	 * @param resultHolder the successful result, or null to clear
+	 */
+	protected void setStaleServiceResult(final ResultHolder<S, T> resultHolder) {
+		if (resultHolder == null) {
+			if (getComponentModel().staleResult != null) {
+				getOrCreateComponentModel().staleResult = null;
+			}
+		} else {
+			getOrCreateComponentModel().staleResult = new SoftReference<>(resultHolder);
+		}
+	}
+
+	/**
+	 * Call the service again in the background while the stale result is displayed.
+	 */
+	protected void handleRevalidateServiceResult() {
+		// Check not already reloading
+		if (getPollingStatus() == PollingStatus.PROCESSING) {
+			return;
+		}
+		LOG.info("Cached result expired for key [" + getServiceCacheKey() + "]. Displaying stale result while reloading.");
+		ResultHolder<S, T> result = handleASyncServiceCall();
+		if (result == null) {
+			// Poll for the refreshed result
+			super.doStartPolling();
+		} else {
+			handleSaveServiceResult(result);
+		}
+	}
+
+	@Override
+	protected void preparePaintComponent(final Request request) {
+		super.preparePaintComponent(request);
+		// Only a displayed successful result that has since gone is reloaded (never after a timeout or an error)
+		if (getPollingStatus() != PollingStatus.STOPPED || !getComponentModel().resultSaved || !getContentResultHolder().isVisible()) {
+			return;
+		}
+		// Check if the displayed result has expired from the cache
+		if (isUseCachedResult() && isUseStaleResult() && getServiceCache().get(getServiceCacheKey()) == null) {
+			if (getStaleServiceResult() == null) {
+				// Stale result not available (eg garbage collected or session replicated)
+				handleRecomputeServiceResult();
+			} else {
+				handleRevalidateServiceResult();
+			}
+		}
+		// Check if the displayed result is no longer in the local result store
+		String handle = getComponentModel().resultHandle;
+		if (!isUseCachedResult() && isUseLocalResultStore() && handle != null && !LocalResultStore.contains(handle)) {
+			handleRecomputeServiceResult();
+		}
+	}
+
+	/**
+	 * Call the service again as the result is no longer in the cache or local result store.
+	 */
+	protected void handleRecomputeServiceResult() {
+		LOG.info("Result is no longer available. Calling the service again.");
+		getContentResultHolder().setVisible(false);
+		doStartPolling();
+	}
+
+	@Override
+	public long getExpectedPollingDuration() {
+		return PollingDurationHistory.getExpectedDuration(getServiceHistoryKey());
+	}
+
+	/**
+	 * The key used to hold the history of how long the service takes. Defaults to the service action class name.
+	 *
+	 * @return the service history key, or null if no history
+	 */
+	public String getServiceHistoryKey() {
+		return getServiceActionName();
+	}
+
+	/**
+	 * @return the name of the service action used in metrics, or null if no service action
+	 */
+	public String getServiceActionName() {
+		ServiceAction action = getServiceAction();
+		return action == null ? null : action.getClass().getName();
+	}
+
+	@Override
+	public ServiceProgress getPollingProgress() {
+		return ServiceProgressRegistry.getProgress(getComponentModel().progressKey);
 	}
 
 	@Override
@@ -216,9 +536,10 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 		if (getPollingStatus() == PollingStatus.PROCESSING) {
 			return;
 		}
-		// Start the service call
-		ResultHolder<S, T> result = handleASyncServiceCall();
-		if (result == null) {
+		clearRetry();
+		// Start the service call (unless deferred while shedding load)
+		ResultHolder<S, T> result = isStartDeferred() ? null : handleASyncServiceCall();
+		if (result == null || handleRetryResult(result)) {
 			super.doStartPolling();
 		} else {
 			handleResult(result);
@@ -227,6 +548,8 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 
 	@Override
 	public void doRefreshContent() {
+		doCancelPrefetch();
+		setStaleServiceResult(null);
 		handleClearServiceCache();
 		// Clear the result
 		setServiceResult(null);
@@ -256,8 +579,21 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 	protected boolean checkForStopPolling() {
 		ResultHolder result;
 		if (isServiceRunning()) {
+			// Keep the service alive
+			AbandonedPollingSweeper.heartbeat(getComponentModel().heartbeatId);
 			// Check if Service Finished
-			result = handleAsyncCheckProcess();
+			int wait = getLongPollWait();
+			if (isRemoteServiceCall()) {
+				result = handleRemoteCheckProcess();
+			} else {
+				result = wait > 0 ? handleAsyncWaitProcess(wait) : handleAsyncCheckProcess();
+			}
+			if (result != null) {
+				handleCircuitBreakerResult(result);
+			}
+		} else if (isRetryPending() || isStartDeferred()) {
+			// Waiting for the backoff or the load to drop before trying again
+			result = null;
 		} else {
 			// Try and start service (usually means no threads were available)
 			result = handleASyncServiceCall();
@@ -266,6 +602,10 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 				LOG.info("Successfully started service on ajax poll in pool [" + getServiceThreadPool() + "].");
 			}
 		}
+		// Check if the failed service should be retried
+		if (result != null && handleRetryResult(result)) {
+			result = null;
+		}
 		// If have result, stop polling
 		if (result != null) {
 			setPollingStatus(PollingStatus.STOPPED);
@@ -274,6 +614,18 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 		return super.checkForStopPolling();
 	}
 
+	@Override
+	protected void doStoppedPollingPanelReload() {
+		// Keep the history of how long the service took
+		if (getPollingStatus() == PollingStatus.STOPPED) {
+			long duration = getPollingElapsedTime();
+			PollingDurationHistory.recordDuration(getServiceHistoryKey(), duration);
+			getPollingMetrics().recordPollingDuration(getServiceActionName(), getServiceThreadPool(), duration);
+			getPollingMetrics().recordNoResultPolls(getServiceActionName(), getServiceThreadPool(), Math.max(getPollCount() - 1, 0));
+		}
+		super.doStoppedPollingPanelReload();
+	}
+
 	@Override
 	protected void handleStoppedPolling() {
 		super.handleStoppedPolling();
@@ -290,6 +642,11 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 
 	@Override
 	protected void handleTimeoutPolling() {
+		getPollingMetrics().incrementTimeout(getServiceActionName(), getServiceThreadPool());
+		if (isServiceRunning()) {
+			// A hanging service counts as a failure
+			handleCircuitBreakerFailure();
+		}
 		super.handleTimeoutPolling();
 		// Make sure the task is cleared
 		clearTaskFuture();
@@ -302,6 +659,15 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 	 */
 	protected void handleSaveServiceResult(final ResultHolder<S, T> resultHolder) {
 		setServiceResult(resultHolder);
+		// Track if a successful result was saved, so it is only reloaded when it has gone
+		boolean saved = resultHolder != null && resultHolder.isResult();
+		if (saved != getComponentModel().resultSaved) {
+			getOrCreateComponentModel().resultSaved = saved;
+		}
+		// Keep the last successful result
+		if (isUseCachedResult() && isUseStaleResult() && resultHolder != null && resultHolder.isResult()) {
+			setStaleServiceResult(resultHolder);
+		}
 	}
 
 	/**
@@ -325,33 +691,328 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 		// Clear previous task (if any)
 		clearTaskFuture();
 
+		// Key the service reports its progress against (unique to this panel so concurrent service calls do not share progress)
+		getOrCreateComponentModel().progressKey = UUID.randomUUID().toString();
+
 		// Start Service action.
 		try {
-			TaskFuture<ResultHolder<S, T>> future;
-			if (isUseCachedResult()) {
-				// Cached service call (and cache exceptions)
-				future = ServiceHelper.submitAsync(getServiceCriteria(), getServiceAction(), getServiceCache(), getServiceCacheKey(), getServiceThreadPool(), true);
+			TaskFuture<ResultHolder<S, T>> future = isUseCachedResult() ? PollingPrefetcher.claim(getServiceCacheKey()) : null;
+			if (future != null) {
+				// Prefetch still in progress is shared with other panels that claim it
+				LOG.debug("Claimed prefetch in progress for key [" + getServiceCacheKey() + "].");
+				getOrCreateComponentModel().sharedTask = true;
+				useSharedProgressKey(getServiceCacheKey());
+			} else if (isUseCachedResult() && isUseSharedServiceCall()) {
+				// Cached service call shared with other panels
+				future = submitSharedServiceCall();
 			} else {
-				// Clear current result
-				setServiceResult(null);
-				// Service call with no caching
-				future = ServiceHelper.submitAsync(getServiceCriteria(), getServiceAction(), getServiceThreadPool());
+				if (!isUseCachedResult()) {
+					// Clear current result
+					setServiceResult(null);
+				}
+				future = submitServiceCall();
 			}
 			if (future.isDone()) {
+				if (isUseCachedResult()) {
+					getPollingMetrics().incrementCacheHit(getServiceActionName(), getServiceThreadPool());
+				}
 				// Result might have been cached so return it immediately
 				return extractResultFromTask(future);
 			}
+			if (isUseCachedResult()) {
+				getPollingMetrics().incrementCacheMiss(getServiceActionName(), getServiceThreadPool());
+			}
 			setTaskFuture(future);
+			registerHeartbeat(future);
 		} catch (ServiceException e) {
 			clearTaskFuture();
 			return new ResultHolderDefault(e);
 		} catch (RejectedServiceException e) {
 			// Could not start service (usually no threads available). Try and start on the next poll.
+			getPollingMetrics().incrementRejected(getServiceActionName(), getServiceThreadPool());
+			PollingGovernor.recordRejected();
 			LOG.info("Could not start service in pool [" + getServiceThreadPool() + "]. Will try next poll.", e);
+			ResultHolder<S, T> failed = handleRejectedRetry();
+			if (failed != null) {
+				// No more attempts allowed
+				handleCircuitBreakerFailure();
+			}
+			return failed;
+		}
+		return null;
+	}
+
+	/**
+	 * Wait the backoff before trying to start a rejected service again.
+	 *
+	 * @return a failed result if no more attempts are allowed, otherwise null
+	 */
+	protected ResultHolder<S, T> handleRejectedRetry() {
+		RetryPolicy policy = getRetryPolicy();
+		if (policy == null) {
+			return null;
+		}
+		int attempt = getComponentModel().retryAttempt + 1;
+		if (attempt >= policy.getMaxAttempts()) {
+			// Attempts are cleared when the failed result is handled
+			return new ResultHolderDefault(new ServiceException("Service could not be started in pool [" + getServiceThreadPool()
+					+ "]. Try again later."));
 		}
+		scheduleRetry(policy, attempt);
 		return null;
 	}
 
+	/**
+	 * Check if the failed result should be retried and if so schedule the retry.
+	 *
+	 * @param result the service result
+	 * @return true if the service will be retried
+	 */
+	protected boolean handleRetryResult(final ResultHolder<S, T> result) {
+		RetryPolicy policy = getRetryPolicy();
+		if (policy == null || result.isResult()) {
+			clearRetry();
+			return false;
+		}
+		int attempt = getComponentModel().retryAttempt + 1;
+		if (attempt >= policy.getMaxAttempts() || !policy.isRetryable(result.getException())) {
+			clearRetry();
+			return false;
+		}
+		LOG.info("Service failed on attempt " + attempt + ". Will retry. " + result.getException().getMessage());
+		// Do not keep the failed result in the cache
+		if (isUseCachedResult()) {
+			setServiceResult(null);
+		}
+		clearTaskFuture();
+		scheduleRetry(policy, attempt);
+		return true;
+	}
+
+	/**
+	 * Record the result of a service call in the circuit breaker for the service action.
+	 *
+	 * @param result the service result
+	 */
+	protected void handleCircuitBreakerResult(final ResultHolder<S, T> result) {
+		RetryPolicy policy = getRetryPolicy();
+		if (policy == null || !policy.isUseCircuitBreaker()) {
+			return;
+		}
+		if (result.isResult()) {
+			ServiceCircuitBreaker.recordSuccess(getServiceActionName());
+		} else if (!(result.getException() instanceof CircuitOpenException)) {
+			ServiceCircuitBreaker.recordFailure(getServiceActionName());
+		}
+	}
+
+	/**
+	 * Record a service call that did not return a result in the circuit breaker for the service action. Called when the polling times out
+	 * waiting for the service, or the service could not be started after the last retry attempt.
+	 */
+	protected void handleCircuitBreakerFailure() {
+		RetryPolicy policy = getRetryPolicy();
+		if (policy != null && policy.isUseCircuitBreaker()) {
+			ServiceCircuitBreaker.recordFailure(getServiceActionName());
+		}
+	}
+
+	/**
+	 * A low priority panel does not start its service while the governor is shedding load, unless the result is already cached. The service is
+	 * started anyway once the panel has been polling longer than the maximum deferral (see {@link PollingProperties#getGovernorMaxDeferral()}),
+	 * so a panel is not starved while the load stays high.
+	 *
+	 * @return true if starting the service is deferred
+	 */
+	protected boolean isStartDeferred() {
+		if (getPollingPriority() != PollingPriority.LOW || !PollingGovernor.isShedding()) {
+			return false;
+		}
+		if (getPollingElapsedTime() > PollingProperties.getGovernorMaxDeferral()) {
+			return false;
+		}
+		return !isUseCachedResult() || getServiceCacheKey() == null || !getServiceCache().containsKey(getServiceCacheKey());
+	}
+
+	/**
+	 * @return true if waiting for the backoff before the next attempt
+	 */
+	protected boolean isRetryPending() {
+		return getComponentModel().retryTime > System.currentTimeMillis();
+	}
+
+	/**
+	 * @param policy the retry policy
+	 * @param attempt the number of attempts made
+	 */
+	private void scheduleRetry(final RetryPolicy policy, final int attempt) {
+		PollingServiceModel model = getOrCreateComponentModel();
+		model.retryAttempt = attempt;
+		model.retryTime = System.currentTimeMillis() + policy.getBackoff(attempt);
+	}
+
+	/**
+	 * Clear the retry attempts.
+	 */
+	private void clearRetry() {
+		if (getComponentModel().retryAttempt != 0 || getComponentModel().retryTime != 0) {
+			PollingServiceModel model = getOrCreateComponentModel();
+			model.retryAttempt = 0;
+			model.retryTime = 0;
+		}
+	}
+
+	/**
+	 * @return true if the circuit breaker for the service action is open and the result is not already cached
+	 */
+	protected boolean isCircuitOpen() {
+		RetryPolicy policy = getRetryPolicy();
+		if (policy == null || !policy.isUseCircuitBreaker()) {
+			return false;
+		}
+		if (isUseCachedResult() && getServiceCache().containsKey(getServiceCacheKey())) {
+			return false;
+		}
+		return ServiceCircuitBreaker.isOpen(getServiceActionName());
+	}
+
+	/**
+	 * Submit the service action.
+	 *
+	 * @return the future of the service call
+	 * @throws ServiceException exception starting the service
+	 * @throws RejectedServiceException service could not be started (usually no threads available)
+	 */
+	protected TaskFuture<ResultHolder<S, T>> submitServiceCall() throws ServiceException, RejectedServiceException {
+		// Fail fast
+		if (isCircuitOpen()) {
+			throw new CircuitOpenException("Service is currently unavailable. Try again later.");
+		}
+		ServiceAction<S, T> action = ServiceProgressRegistry.wrap(getServiceAction(), getComponentModel().progressKey);
+		action = ServiceDeadline.wrap(action, getServiceDeadline(), getServiceActionName(), getServiceThreadPool());
+		if (isUseCachedResult()) {
+			return submitTrackedServiceCall(action);
+		}
+		if (isUseVirtualThreads()) {
+			return VirtualThreadServiceExecutor.submit(getServiceCriteria(), action, null, getServiceCacheKey(), getServiceThreadPool());
+		}
+		// Service call with no caching
+		return ServiceHelper.submitAsync(getServiceCriteria(), action, getServiceThreadPool());
+	}
+
+	/**
+	 * Submit the cached service action with its status tracked in the {@link TaskStatusRegistry}, so any node can tell when the result is in the
+	 * result cache.
+	 *
+	 * @param serviceAction the service action
+	 * @return the future of the service call
+	 * @throws ServiceException exception starting the service
+	 * @throws RejectedServiceException service could not be started (usually no threads available)
+	 */
+	private TaskFuture<ResultHolder<S, T>> submitTrackedServiceCall(final ServiceAction<S, T> serviceAction) throws ServiceException,
+			RejectedServiceException {
+		String taskId = UUID.randomUUID().toString();
+		ServiceAction<S, T> action = new TaskStatusServiceAction<>(serviceAction, taskId, getTaskStatusRegistry());
+		getTaskStatusRegistry().setStatus(taskId, TaskStatus.RUNNING);
+		getOrCreateComponentModel().taskId = taskId;
+		getOrCreateComponentModel().taskNode = NODE_ID;
+		TaskFuture<ResultHolder<S, T>> future = null;
+		try {
+			if (isUseVirtualThreads()) {
+				future = VirtualThreadServiceExecutor.submit(getServiceCriteria(), action, getServiceCache(), getServiceCacheKey(),
+						getServiceThreadPool());
+			} else {
+				// Cached service call (and cache exceptions)
+				future = ServiceHelper.submitAsync(getServiceCriteria(), action, getServiceCache(), getServiceCacheKey(), getServiceThreadPool(),
+						true);
+			}
+			return future;
+		} finally {
+			// Nothing to track if not started or the result was already cached
+			if (future == null || future.isDone()) {
+				getTaskStatusRegistry().remove(taskId);
+				getOrCreateComponentModel().taskId = null;
+				getOrCreateComponentModel().taskNode = null;
+			}
+		}
+	}
+
+	/**
+	 * @return true if the service call was started on another node
+	 */
+	protected boolean isRemoteServiceCall() {
+		return getComponentModel().taskId != null && !NODE_ID.equals(getComponentModel().taskNode);
+	}
+
+	/**
+	 * Check the task status registry for a service call running on another node.
+	 *
+	 * @return the result from the result cache, or null if not finished
+	 */
+	protected ResultHolder<S, T> handleRemoteCheckProcess() {
+		TaskStatus status = getTaskStatusRegistry().getStatus(getComponentModel().taskId);
+		if (status != TaskStatus.DONE) {
+			if (status == null) {
+				LOG.debug("Status of service call for key [" + getServiceCacheKey() + "] is not known on this node.");
+			}
+			return null;
+		}
+		// The status is set just before the result is put in the cache, so check the result is available
+		ResultHolder<S, T> result = getServiceCache().get(getServiceCacheKey());
+		if (result != null) {
+			clearTaskFuture();
+		}
+		return result;
+	}
+
+	/**
+	 * @return the task status registry
+	 */
+	protected TaskStatusRegistry getTaskStatusRegistry() {
+		return TASK_STATUS;
+	}
+
+	/**
+	 * Attach to the service call in progress for the cache key, or start a new service call that other panels can attach to.
+	 *
+	 * @return the future of the shared service call
+	 * @throws ServiceException exception starting the service
+	 * @throws RejectedServiceException service could not be started (usually no threads available)
+	 */
+	protected TaskFuture<ResultHolder<S, T>> submitSharedServiceCall() throws ServiceException, RejectedServiceException {
+		String key = getServiceCacheKey();
+		// Check if service call already in progress
+		TaskFuture<ResultHolder<S, T>> future = SharedServiceCalls.attach(key);
+		if (future != null) {
+			LOG.debug("Attached to service call in progress for key [" + key + "].");
+			getOrCreateComponentModel().sharedTask = true;
+			useSharedProgressKey(key);
+			return future;
+		}
+		future = submitServiceCall();
+		if (future.isDone()) {
+			// Result already cached
+			return future;
+		}
+		// Register so other panels can share the service call
+		getOrCreateComponentModel().sharedTask = true;
+		future = SharedServiceCalls.register(key, future, getComponentModel().progressKey);
+		useSharedProgressKey(key);
+		return future;
+	}
+
+	/**
+	 * Display the progress reported by the shared service call.
+	 *
+	 * @param key the cache key
+	 */
+	private void useSharedProgressKey(final String key) {
+		String progressKey = SharedServiceCalls.getProgressKey(key);
+		if (progressKey != null) {
+			getOrCreateComponentModel().progressKey = progressKey;
+		}
+	}
+
 	/**
 	 * Check if the service has finished.
 	 *
@@ -375,6 +1036,35 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 		return null;
 	}
 
+	/**
+	 * Wait for the service to finish.
+	 *
+	 * @param wait the maximum time in milli seconds to wait for the service
+	 * @return the result or null if still running after the wait
+	 */
+	protected ResultHolder<S, T> handleAsyncWaitProcess(final int wait) {
+		TaskFuture<ResultHolder<S, T>> future = getTaskFuture();
+		if (future == null) {
+			throw new IllegalStateException("No future set for async processing");
+		}
+		if (!future.isDone()) {
+			try {
+				future.get(wait, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// Still running. Wait again on the next poll.
+				return null;
+			} catch (InterruptedException e) {
+				// Restore interrupted state...
+				Thread.currentThread().interrupt();
+				return null;
+			} catch (ExecutionException | CancellationException e) {
+				// Finished. The exception is extracted from the future by the check process.
+				LOG.debug("Service finished with an exception while waiting on poll.");
+			}
+		}
+		return handleAsyncCheckProcess();
+	}
+
 	/**
 	 * Extract the result form the future.
 	 *
@@ -392,6 +1082,8 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 				throw new ServiceException("Getting result from Future but thread was interrupted. " + e.getMessage(), e);
 			} catch (ExecutionException e) {
 				throw new ServiceException("Could not get result from the future. " + e.getMessage(), e);
+			} catch (CancellationException e) {
+				throw new ServiceException("Service was cancelled before a result was available.", e);
 			}
 		}
 		return null;
@@ -418,6 +1110,41 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 		getOrCreateComponentModel().taskFuture = future;
 	}
 
+	/**
+	 * Register the running service so it can be reclaimed if the panel stops polling.
+	 * <p>
+	 * Not registered if the task statuses are shared across the cluster, as polls handled by other nodes do not send a heartbeat to this node.
+	 * </p>
+	 *
+	 * @param future the task future running the service call
+	 */
+	protected void registerHeartbeat(final TaskFuture<ResultHolder<S, T>> future) {
+		if (getTaskStatusRegistry().isClustered()) {
+			return;
+		}
+		String sharedKey = getComponentModel().sharedTask ? getServiceCacheKey() : null;
+		Runnable onAbandon = new AbandonServiceAction(future, sharedKey, getAbandonedServiceRelease(), getComponentModel().taskId,
+				getTaskStatusRegistry());
+		getOrCreateComponentModel().heartbeatId = AbandonedPollingSweeper.register(onAbandon);
+	}
+
+	/**
+	 * Provide an action to release any resources held by the running service if it is abandoned.
+	 *
+	 * @return the action to release resources, or null if no resources to release
+	 */
+	protected Runnable getAbandonedServiceRelease() {
+		return null;
+	}
+
+	/**
+	 * @return true if the running service has been abandoned and its resources reclaimed
+	 */
+	protected boolean isServiceAbandoned() {
+		String id = getComponentModel().heartbeatId;
+		return id != null && !AbandonedPollingSweeper.isRegistered(id);
+	}
+
 	/**
 	 * Clear the current task.
 	 */
@@ -427,13 +1154,69 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 		if (current == null) {
 			return;
 		}
-		// Check if task can be cancelled
-		if (!current.isDone()) {
-			current.cancel(true);
+		// Stop tracking the status
+		String taskId = getComponentModel().taskId;
+		if (taskId != null) {
+			boolean remote = isRemoteServiceCall();
+			getTaskStatusRegistry().remove(taskId);
+			getOrCreateComponentModel().taskId = null;
+			getOrCreateComponentModel().taskNode = null;
+			if (remote) {
+				// The future, heartbeat and shared call are only held on the node that started the service call
+				getOrCreateComponentModel().heartbeatId = null;
+				getOrCreateComponentModel().sharedTask = false;
+				getOrCreateComponentModel().progressKey = null;
+				setTaskFuture(null);
+				return;
+			}
+		}
+		// Stop checking for abandoned
+		String heartbeatId = getComponentModel().heartbeatId;
+		if (heartbeatId != null) {
+			AbandonedPollingSweeper.unregister(heartbeatId);
+			getOrCreateComponentModel().heartbeatId = null;
+		}
+		if (getComponentModel().sharedTask) {
+			// Shared task is only cancelled when no other panels are attached
+			SharedServiceCalls.detach(getServiceCacheKey(), current);
+			getOrCreateComponentModel().sharedTask = false;
+		} else {
+			if (!current.isDone()) {
+				// Check if task can be cancelled
+				current.cancel(true);
+			}
+			if (current instanceof LocalTaskFuture) {
+				// Result has been collected or is no longer needed
+				((LocalTaskFuture) current).release();
+			}
 		}
+		getOrCreateComponentModel().progressKey = null;
 		setTaskFuture(null);
 	}
 
+	@Override
+	protected void handleInitPollingPanel(final Request request) {
+		super.handleInitPollingPanel(request);
+		if (isUsePrefetch() && isUseCachedResult() && getStartType() != PollingStartType.AUTOMATIC && getPollingStatus() != PollingStatus.PROCESSING) {
+			handlePrefetch();
+		}
+	}
+
+	/**
+	 * Prefetch the service result into the cache.
+	 */
+	protected void handlePrefetch() {
+		if (getServiceAction() == null || getServiceCacheKey() == null) {
+			return;
+		}
+		// Identifies this panel as an owner of the prefetch, so it only cancels its own interest in the prefetch
+		String owner = UUID.randomUUID().toString();
+		getOrCreateComponentModel().prefetchOwner = owner;
+		if (PollingPrefetcher.prefetch(getServiceCriteria(), getServiceAction(), getServiceCache(), getServiceCacheKey(), owner)) {
+			LOG.debug("Prefetching service result for key [" + getServiceCacheKey() + "].");
+		}
+	}
+
 	/**
 	 * Initialise the result content.
 	 *
@@ -487,9 +1270,40 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 	}
 
 	/**
+	 * @return the metrics for the polling panels
+	 */
+	protected PollingMetrics getPollingMetrics() {
+		return PollingMetricsFactory.getInstance();
+	}
+
+	/**
+	 * @return the cache policy for the panel, or null to use the policy registered for the service action
+	 */
+	public ResultCachePolicy getServiceCachePolicy() {
+		return getComponentModel().cachePolicy;
+	}
+
+	/**
+	 * @param cachePolicy the cache policy for the panel, or null to use the policy registered for the service action
+	 */
+	public void setServiceCachePolicy(final ResultCachePolicy cachePolicy) {
+		getOrCreateComponentModel().cachePolicy = cachePolicy;
+	}
+
+	/**
+	 * The cache is from the panel cache policy, otherwise the policy registered for the service action (see
+	 * {@link ResultCaches#setActionPolicy(String, ResultCachePolicy)}), otherwise the default result holder cache.
+	 *
 	 * @return the service cache instance
 	 */
 	protected Cache<String, ResultHolder> getServiceCache() {
+		ResultCachePolicy policy = getServiceCachePolicy();
+		if (policy == null) {
+			policy = ResultCaches.getActionPolicy(getServiceActionName());
+		}
+		if (policy != null) {
+			return ResultCaches.getCache(policy);
+		}
 		return ServiceCacheUtil.getDefaultResultHolderCache();
 	}
 
@@ -524,11 +1338,100 @@ public class PollingServicePanel<S extends Serializable, T extends Serializable>
 
 		private boolean useCachedResult = true;
 
+		private boolean useLocalResultStore;
+
+		private boolean usePrefetch;
+
+		private String prefetchOwner;
+
+		private String resultHandle;
+
+		private boolean resultSaved;
+
 		private TaskFuture<ResultHolder<S, T>> taskFuture;
 
+		private int longPollWait;
+
+		private boolean useSharedServiceCall;
+
+		private boolean sharedTask;
+
+		private boolean useStaleResult;
+
+		private boolean useVirtualThreads;
+
+		private String heartbeatId;
+
+		private String progressKey;
+
+		private RetryPolicy retryPolicy;
+
+		private boolean useServiceDeadline;
+
+		private int retryAttempt;
+
+		private long retryTime;
+
+		private String taskId;
+
+		private String taskNode;
+
+		private ResultCachePolicy cachePolicy;
+
+		private transient SoftReference<ResultHolder<S, T>> staleResult;
+
 		private ServiceAction<S, T> serviceAction;
 
 		private ResultHolder<S, T> serviceResult;
 	}
 
+	/**
+	 * Cancel an abandoned service and release its resources.
+	 */
+	private static final class AbandonServiceAction implements Runnable {
+
+		private final TaskFuture<?> future;
+
+		private final String sharedKey;
+
+		private final Runnable release;
+
+		private final String taskId;
+
+		private final TaskStatusRegistry registry;
+
+		/**
+		 * @param future the task future running the service call
+		 * @param sharedKey the cache key if a shared service call, otherwise null
+		 * @param release the action to release resources, or null
+		 * @param taskId the id of the task status, or null if not tracked
+		 * @param registry the registry holding the task status
+		 */
+		private AbandonServiceAction(final TaskFuture<?> future, final String sharedKey, final Runnable release, final String taskId,
+				final TaskStatusRegistry registry) {
+			this.future = future;
+			this.sharedKey = sharedKey;
+			this.release = release;
+			this.taskId = taskId;
+			this.registry = registry;
+		}
+
+		@Override
+		public void run() {
+			if (taskId != null) {
+				// The task may be cancelled before it runs, so it would not mark its status
+				registry.remove(taskId);
+			}
+			if (sharedKey == null) {
+				future.cancel(true);
+			} else {
+				// Only cancelled if no other panels attached
+				SharedServiceCalls.detach(sharedKey, future);
+			}
+			if (release != null) {
+				release.run();
+			}
+		}
+	}
+
 }
@@ -0,0 +1,231 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.TaskFuture;
+import com.github.bordertech.taskmaster.service.ResultHolder;
+import com.github.bordertech.taskmaster.service.ServiceAction;
+import com.github.bordertech.taskmaster.service.exception.RejectedServiceException;
+import com.github.bordertech.taskmaster.service.exception.ServiceException;
+import com.github.bordertech.taskmaster.service.impl.ResultHolderDefault;
+import com.github.bordertech.wcomponents.AjaxTarget;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Polling panel that displays the chunks of the result as they arrive.
+ * <p>
+ * The service is a {@link ChunkedServiceAction}. On each poll the chunks emitted since the last poll are collected from a bounded
+ * {@link ChunkBuffer} and the content result holder is refreshed to display the chunks so far, via the "result" bean property as a list. When
+ * the service completes, the full result is loaded as usual. The result content should be bound to the list of chunks (a {@link ChunkList}).
+ * </p>
+ * <p>
+ * The content result holder is displayed (with no chunks) as soon as polling starts, so it can be refreshed by the polls. The chunks collected
+ * are kept in the buffer on the local node and only the buffer key is held in the user session. The chunks displayed while streaming share the
+ * list that becomes the service result, so the chunks are only held once.
+ * </p>
+ * <p>
+ * The chunks of a service call can only be collected by one panel, so shared service calls are not used by this panel.
+ * </p>
+ *
+ * @param <S> the criteria type
+ * @param <C> the chunk type
+ * @since 1.0.6
+ */
+public class PollingStreamingServicePanel<S extends Serializable, C extends Serializable> extends PollingServicePanel<S, ChunkList<C>> {
+
+	/**
+	 * Default constructor.
+	 */
+	public PollingStreamingServicePanel() {
+		this(174);
+	}
+
+	/**
+	 * Construct polling panel.
+	 *
+	 * @param delay the AJAX polling delay
+	 */
+	public PollingStreamingServicePanel(final int delay) {
+		super(delay);
+	}
+
+	/**
+	 * @return the chunked service action
+	 */
+	public ChunkedServiceAction<S, C> getChunkedServiceAction() {
+		return getComponentModel().chunkedAction;
+	}
+
+	/**
+	 * @param chunkedAction the chunked service action
+	 */
+	public void setChunkedServiceAction(final ChunkedServiceAction<S, C> chunkedAction) {
+		getOrCreateComponentModel().chunkedAction = chunkedAction;
+	}
+
+	/**
+	 * @return the maximum number of chunks buffered between polls
+	 */
+	public int getChunkBufferSize() {
+		return getComponentModel().chunkBufferSize;
+	}
+
+	/**
+	 * @param chunkBufferSize the maximum number of chunks buffered between polls
+	 */
+	public void setChunkBufferSize(final int chunkBufferSize) {
+		getOrCreateComponentModel().chunkBufferSize = chunkBufferSize < 1 ? 1 : chunkBufferSize;
+	}
+
+	/**
+	 * @return the chunks collected so far while the service is running, or null if not streaming
+	 */
+	public List<C> getPartialResult() {
+		ChunkBuffer<C> buffer = ChunkBuffer.get(getComponentModel().bufferKey);
+		return buffer == null ? null : buffer.getCollected();
+	}
+
+	@Override
+	public ServiceAction<S, ChunkList<C>> getServiceAction() {
+		ChunkedServiceAction<S, C> chunked = getChunkedServiceAction();
+		if (chunked == null) {
+			return super.getServiceAction();
+		}
+		return new StreamingServiceAction<>(chunked, getComponentModel().bufferKey);
+	}
+
+	@Override
+	public String getServiceActionName() {
+		ChunkedServiceAction<S, C> chunked = getChunkedServiceAction();
+		return chunked == null ? super.getServiceActionName() : chunked.getClass().getName();
+	}
+
+	@Override
+	public boolean isUseSharedServiceCall() {
+		return false;
+	}
+
+	/**
+	 * @return the chunks collected so far while streaming, otherwise the service result
+	 */
+	@Override
+	public ResultHolder<S, ChunkList<C>> getServiceResult() {
+		ChunkBuffer<C> buffer = ChunkBuffer.get(getComponentModel().bufferKey);
+		if (buffer != null) {
+			return new ResultHolderDefault(getServiceCriteria(), buffer.getCollected());
+		}
+		return super.getServiceResult();
+	}
+
+	@Override
+	public List<AjaxTarget> getPollingRefreshTargets() {
+		// Refresh the result content with the chunks collected
+		if (getComponentModel().bufferKey != null) {
+			return Collections.singletonList((AjaxTarget) getContentResultHolder());
+		}
+		return null;
+	}
+
+	@Override
+	public void doStartPolling() {
+		// Display the result content so it is on the page to be refreshed with the chunks
+		if (getChunkedServiceAction() != null && getPollingStatus() != PollingStatus.PROCESSING) {
+			getContentResultHolder().setVisible(true);
+		}
+		super.doStartPolling();
+	}
+
+	@Override
+	protected void handleResultException(final Exception excp) {
+		// Do not display the chunks collected before the error
+		getContentResultHolder().setVisible(false);
+		super.handleResultException(excp);
+	}
+
+	@Override
+	protected void handleTimeoutPolling() {
+		// Do not display the chunks collected before the timeout
+		getContentResultHolder().setVisible(false);
+		super.handleTimeoutPolling();
+	}
+
+	@Override
+	protected void handlePoll() {
+		handleCollectChunks();
+		super.handlePoll();
+	}
+
+	/**
+	 * Collect the chunks emitted since the last poll.
+	 */
+	protected void handleCollectChunks() {
+		ChunkBuffer<C> buffer = ChunkBuffer.get(getComponentModel().bufferKey);
+		if (buffer != null) {
+			buffer.collect();
+		}
+	}
+
+	@Override
+	protected TaskFuture<ResultHolder<S, ChunkList<C>>> submitServiceCall() throws ServiceException, RejectedServiceException {
+		if (getChunkedServiceAction() == null) {
+			return super.submitServiceCall();
+		}
+		String key = UUID.randomUUID().toString();
+		ChunkBuffer.open(key, getChunkBufferSize());
+		getOrCreateComponentModel().bufferKey = key;
+		TaskFuture<ResultHolder<S, ChunkList<C>>> future = null;
+		try {
+			future = super.submitServiceCall();
+			return future;
+		} finally {
+			// Nothing to stream if not started or the result was already cached
+			if (future == null || future.isDone()) {
+				ChunkBuffer.close(key);
+				getOrCreateComponentModel().bufferKey = null;
+			}
+		}
+	}
+
+	@Override
+	protected void clearTaskFuture() {
+		// The final result (if any) replaces the chunks collected
+		String key = getComponentModel().bufferKey;
+		if (key != null) {
+			ChunkBuffer.close(key);
+			getOrCreateComponentModel().bufferKey = null;
+		}
+		super.clearTaskFuture();
+	}
+
+	@Override
+	protected StreamingModel<S, C> newComponentModel() {
+		return new StreamingModel();
+	}
+
+	@Override
+	protected StreamingModel<S, C> getOrCreateComponentModel() {
+		return (StreamingModel) super.getOrCreateComponentModel();
+	}
+
+	@Override
+	protected StreamingModel<S, C> getComponentModel() {
+		return (StreamingModel) super.getComponentModel();
+	}
+
+	/**
+	 * This model holds the state information.
+	 *
+	 * @param <S> the criteria type
+	 * @param <C> the chunk type
+	 */
+	public static class StreamingModel<S extends Serializable, C extends Serializable> extends PollingServiceModel<S, ChunkList<C>> {
+
+		private ChunkedServiceAction<S, C> chunkedAction;
+
+		private int chunkBufferSize = 100;
+
+		private String bufferKey;
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.io.Serializable;
+
+/**
+ * The cache policy for service results.
+ * <p>
+ * Each policy name is a separate cache, so large results can be kept apart from small results and not evict them. The policy is applied when the
+ * cache for the name is first used (see {@link ResultCaches#getCache(ResultCachePolicy)}), so policies with the same name should have the same
+ * settings.
+ * </p>
+ * <p>
+ * A policy can use a cache configured in the caching provider (eg an Ehcache configuration with a heap and an off-heap tier) by setting the
+ * provider cache name. The expiry settings are then taken from the provider configuration, but the entry and weight bounds of the policy still
+ * apply.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public class ResultCachePolicy implements Serializable {
+
+	private final String name;
+
+	private int timeToLive;
+
+	private int timeToIdle;
+
+	private int maxEntries;
+
+	private long maxWeight;
+
+	private String providerCacheName;
+
+	/**
+	 * @param name the policy name, which is also the name of the cache
+	 */
+	public ResultCachePolicy(final String name) {
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("A cache policy name must be provided.");
+		}
+		this.name = name;
+	}
+
+	/**
+	 * @return the policy name, which is also the name of the cache
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the time in seconds an entry is kept after it was created, or 0 for no limit
+	 */
+	public int getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * @param timeToLive the time in seconds an entry is kept after it was created, or 0 for no limit
+	 */
+	public void setTimeToLive(final int timeToLive) {
+		this.timeToLive = timeToLive < 0 ? 0 : timeToLive;
+	}
+
+	/**
+	 * @return the time in seconds an entry is kept after it was last used, or 0 for no limit
+	 */
+	public int getTimeToIdle() {
+		return timeToIdle;
+	}
+
+	/**
+	 * When both a time to live and a time to idle are set, each use of an entry extends its life by the time to idle.
+	 *
+	 * @param timeToIdle the time in seconds an entry is kept after it was last used, or 0 for no limit
+	 */
+	public void setTimeToIdle(final int timeToIdle) {
+		this.timeToIdle = timeToIdle < 0 ? 0 : timeToIdle;
+	}
+
+	/**
+	 * @return the maximum number of entries, or 0 for no limit
+	 */
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * @param maxEntries the maximum number of entries, or 0 for no limit
+	 */
+	public void setMaxEntries(final int maxEntries) {
+		this.maxEntries = maxEntries < 0 ? 0 : maxEntries;
+	}
+
+	/**
+	 * @return the maximum total serialized size in bytes of the entries, or 0 for no limit
+	 */
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * @param maxWeight the maximum total serialized size in bytes of the entries, or 0 for no limit
+	 */
+	public void setMaxWeight(final long maxWeight) {
+		this.maxWeight = maxWeight < 0 ? 0 : maxWeight;
+	}
+
+	/**
+	 * @return the name of the cache configured in the caching provider, or null to create the cache from this policy
+	 */
+	public String getProviderCacheName() {
+		return providerCacheName;
+	}
+
+	/**
+	 * @param providerCacheName the name of the cache configured in the caching provider, or null to create the cache from this policy
+	 */
+	public void setProviderCacheName(final String providerCacheName) {
+		this.providerCacheName = providerCacheName;
+	}
+
+	/**
+	 * @return true if the number of entries or the weight is limited
+	 */
+	public boolean isBounded() {
+		return maxEntries > 0 || maxWeight > 0;
+	}
+
+}
@@ -0,0 +1,521 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.service.ResultHolder;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryListenerException;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ExpiryPolicy;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.MutableEntry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Provides the service result caches for the {@link ResultCachePolicy cache policies}.
+ * <p>
+ * JCache does not bound the size of a cache, so the entries of a bounded cache are tracked by a cache listener. When the number of entries or
+ * their total serialized size exceeds the policy, the oldest entries are removed. Cache listeners are not told when an entry is read, so the
+ * entries are removed in the order they were added rather than least recently used. The size of a result is worked out by serializing it once
+ * when it is added. The listener is asynchronous so this is done off the request thread.
+ * </p>
+ * <p>
+ * A JCache expiry policy cannot limit the access expiry to the remaining time to live, so when a policy has both a time to live and a time to
+ * idle, the time each entry was added is tracked and a sweeper removes the entries that have passed their time to live.
+ * </p>
+ * <p>
+ * A policy can also be registered for a service action, so all panels using the action share the cache without setting the policy on each panel.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class ResultCaches {
+
+	private static final Log LOG = LogFactory.getLog(ResultCaches.class);
+
+	private static final Map<String, Cache<String, ResultHolder>> CACHES = new ConcurrentHashMap<>();
+
+	private static final Map<String, CacheBounds> BOUNDS = new ConcurrentHashMap<>();
+
+	private static final Map<String, ResultCachePolicy> ACTION_POLICIES = new ConcurrentHashMap<>();
+
+	private static final Map<String, Map<String, Long>> ADDED_TIMES = new ConcurrentHashMap<>();
+
+	/**
+	 * Maximum interval in milli seconds between sweeps for entries past their time to live.
+	 */
+	private static final long MAX_SWEEP_INTERVAL = 60000;
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private ResultCaches() {
+		//No-impl
+	}
+
+	/**
+	 * @param policy the cache policy
+	 * @return the cache for the policy
+	 */
+	public static Cache<String, ResultHolder> getCache(final ResultCachePolicy policy) {
+		return CACHES.computeIfAbsent(policy.getName(), name -> createCache(policy));
+	}
+
+	/**
+	 * Register the cache policy to use for a service action.
+	 *
+	 * @param actionName the service action name (see {@link PollingServicePanel#getServiceActionName()})
+	 * @param policy the cache policy, or null to use the default cache
+	 */
+	public static void setActionPolicy(final String actionName, final ResultCachePolicy policy) {
+		if (policy == null) {
+			ACTION_POLICIES.remove(actionName);
+		} else {
+			ACTION_POLICIES.put(actionName, policy);
+		}
+	}
+
+	/**
+	 * @param actionName the service action name
+	 * @return the cache policy registered for the service action, or null
+	 */
+	public static ResultCachePolicy getActionPolicy(final String actionName) {
+		return actionName == null ? null : ACTION_POLICIES.get(actionName);
+	}
+
+	/**
+	 * @param policy the cache policy
+	 * @return the new cache
+	 */
+	private static Cache<String, ResultHolder> createCache(final ResultCachePolicy policy) {
+		CacheManager mgr = Caching.getCachingProvider().getCacheManager();
+		MutableCacheEntryListenerConfiguration<String, ResultHolder> listener = null;
+		if (policy.isBounded()) {
+			BOUNDS.put(policy.getName(), new CacheBounds(policy.getMaxEntries(), policy.getMaxWeight()));
+			listener = new MutableCacheEntryListenerConfiguration<>(FactoryBuilder.factoryOf(new BoundsListener(policy.getName())), null, false,
+					false);
+		}
+		// Cache configured by the caching provider
+		if (policy.getProviderCacheName() != null) {
+			Cache<String, ResultHolder> cache = mgr.getCache(policy.getProviderCacheName(), String.class, ResultHolder.class);
+			if (cache == null) {
+				throw new IllegalStateException("Cache [" + policy.getProviderCacheName() + "] is not configured in the caching provider.");
+			}
+			if (listener != null) {
+				cache.registerCacheEntryListener(listener);
+			}
+			return cache;
+		}
+		Cache<String, ResultHolder> cache = mgr.getCache(policy.getName(), String.class, ResultHolder.class);
+		if (cache != null) {
+			// Already created (eg by another application)
+			if (listener != null) {
+				cache.registerCacheEntryListener(listener);
+			}
+			return cache;
+		}
+		MutableConfiguration<String, ResultHolder> config = new MutableConfiguration<>();
+		config.setTypes(String.class, ResultHolder.class);
+		config.setExpiryPolicyFactory(FactoryBuilder.factoryOf(new PolicyExpiry(policy.getTimeToLive(), policy.getTimeToIdle())));
+		if (listener != null) {
+			config.addCacheEntryListenerConfiguration(listener);
+		}
+		// Time to idle resets the expiry on access, so the time to live is applied by a sweeper
+		boolean sweepTimeToLive = policy.getTimeToLive() > 0 && policy.getTimeToIdle() > 0;
+		if (sweepTimeToLive) {
+			ADDED_TIMES.put(policy.getName(), new ConcurrentHashMap<String, Long>());
+			config.addCacheEntryListenerConfiguration(new MutableCacheEntryListenerConfiguration<>(
+					FactoryBuilder.factoryOf(new AddedTimeListener(policy.getName())), null, false, true));
+		}
+		Cache<String, ResultHolder> created = mgr.createCache(policy.getName(), config);
+		if (sweepTimeToLive) {
+			scheduleTimeToLiveSweep(created, policy);
+		}
+		return created;
+	}
+
+	/**
+	 * Schedule the removal of the entries that have passed their time to live.
+	 *
+	 * @param cache the cache
+	 * @param policy the cache policy
+	 */
+	private static void scheduleTimeToLiveSweep(final Cache<String, ResultHolder> cache, final ResultCachePolicy policy) {
+		final String name = policy.getName();
+		final long timeToLive = policy.getTimeToLive() * 1000L;
+		long interval = Math.max(1000, Math.min(timeToLive / 10, MAX_SWEEP_INTERVAL));
+		TimeToLiveSweeper.SWEEPER.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				Map<String, Long> added = ADDED_TIMES.get(name);
+				if (added == null) {
+					return;
+				}
+				long cutoff = System.currentTimeMillis() - timeToLive;
+				for (Map.Entry<String, Long> entry : added.entrySet()) {
+					String key = entry.getKey();
+					// Skip if the result has been put again since the added time was read
+					if (entry.getValue() >= cutoff || !added.remove(key, entry.getValue())) {
+						continue;
+					}
+					try {
+						cache.invoke(key, new RemoveIfNotAdded(name));
+					} catch (Exception e) {
+						LOG.warn("Could not remove expired result from cache [" + name + "]. " + e.getMessage());
+					}
+				}
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param value the value
+	 * @return the serialized size of the value in bytes
+	 */
+	static long getWeight(final Object value) {
+		CountingOutputStream count = new CountingOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(count)) {
+			out.writeObject(value);
+		} catch (IOException e) {
+			LOG.warn("Could not work out the size of a cached result. " + e.getMessage());
+		}
+		return count.count;
+	}
+
+	/**
+	 * Expiry from the time to live and time to idle of the policy.
+	 * <p>
+	 * If both are set, the access expiry is the time to idle and the time to live is applied by the sweeper.
+	 * </p>
+	 */
+	private static final class PolicyExpiry implements ExpiryPolicy, Serializable {
+
+		private final Duration creation;
+
+		private final Duration access;
+
+		/**
+		 * @param timeToLive the time to live in seconds, or 0
+		 * @param timeToIdle the time to idle in seconds, or 0
+		 */
+		private PolicyExpiry(final int timeToLive, final int timeToIdle) {
+			int initial;
+			if (timeToLive > 0 && timeToIdle > 0) {
+				initial = Math.min(timeToLive, timeToIdle);
+			} else {
+				initial = Math.max(timeToLive, timeToIdle);
+			}
+			this.creation = initial > 0 ? new Duration(TimeUnit.SECONDS, initial) : Duration.ETERNAL;
+			this.access = timeToIdle > 0 ? new Duration(TimeUnit.SECONDS, timeToIdle) : null;
+		}
+
+		@Override
+		public Duration getExpiryForCreation() {
+			return creation;
+		}
+
+		@Override
+		public Duration getExpiryForAccess() {
+			// Null leaves the expiry unchanged
+			return access;
+		}
+
+		@Override
+		public Duration getExpiryForUpdate() {
+			return creation;
+		}
+	}
+
+	/**
+	 * Tracks the entries of a bounded cache in the order they were added (reads are not visible to cache listeners).
+	 */
+	private static final class CacheBounds {
+
+		private final int maxEntries;
+
+		private final long maxWeight;
+
+		private final LinkedHashMap<String, Long> weights = new LinkedHashMap<>();
+
+		private long totalWeight;
+
+		/**
+		 * @param maxEntries the maximum number of entries, or 0
+		 * @param maxWeight the maximum total weight, or 0
+		 */
+		private CacheBounds(final int maxEntries, final long maxWeight) {
+			this.maxEntries = maxEntries;
+			this.maxWeight = maxWeight;
+		}
+
+		/**
+		 * @param key the entry key
+		 * @param weight the entry weight
+		 * @return the keys of the oldest entries to evict
+		 */
+		private synchronized List<String> added(final String key, final long weight) {
+			removed(key);
+			weights.put(key, weight);
+			totalWeight += weight;
+			List<String> evict = new ArrayList<>();
+			Iterator<Map.Entry<String, Long>> iter = weights.entrySet().iterator();
+			// Always keep the entry just added
+			while (weights.size() > 1 && isOverBounds()) {
+				Map.Entry<String, Long> eldest = iter.next();
+				totalWeight -= eldest.getValue();
+				evict.add(eldest.getKey());
+				iter.remove();
+			}
+			return evict;
+		}
+
+		/**
+		 * @param key the entry key
+		 */
+		private synchronized void removed(final String key) {
+			Long weight = weights.remove(key);
+			if (weight != null) {
+				totalWeight -= weight;
+			}
+		}
+
+		/**
+		 * @return true if over the entry or weight bounds
+		 */
+		private boolean isOverBounds() {
+			return (maxEntries > 0 && weights.size() > maxEntries) || (maxWeight > 0 && totalWeight > maxWeight);
+		}
+	}
+
+	/**
+	 * Listener that applies the entry and weight bounds to a cache.
+	 */
+	private static final class BoundsListener implements CacheEntryCreatedListener<String, ResultHolder>,
+			CacheEntryUpdatedListener<String, ResultHolder>, CacheEntryRemovedListener<String, ResultHolder>,
+			CacheEntryExpiredListener<String, ResultHolder>, Serializable {
+
+		private final String policyName;
+
+		/**
+		 * @param policyName the policy name
+		 */
+		private BoundsListener(final String policyName) {
+			this.policyName = policyName;
+		}
+
+		@Override
+		public void onCreated(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events)
+				throws CacheEntryListenerException {
+			handleAdded(events);
+		}
+
+		@Override
+		public void onUpdated(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events)
+				throws CacheEntryListenerException {
+			handleAdded(events);
+		}
+
+		@Override
+		public void onRemoved(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events)
+				throws CacheEntryListenerException {
+			handleRemoved(events);
+		}
+
+		@Override
+		public void onExpired(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events)
+				throws CacheEntryListenerException {
+			handleRemoved(events);
+		}
+
+		/**
+		 * @param events the entries added
+		 */
+		private void handleAdded(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events) {
+			CacheBounds bounds = BOUNDS.get(policyName);
+			if (bounds == null) {
+				return;
+			}
+			for (CacheEntryEvent<? extends String, ? extends ResultHolder> event : events) {
+				List<String> evict = bounds.added(event.getKey(), getWeight(event.getValue()));
+				if (!evict.isEmpty()) {
+					Cache<String, ResultHolder> cache = event.getSource();
+					for (String key : evict) {
+						LOG.debug("Evicting cached result [" + key + "] from cache [" + policyName + "].");
+						cache.remove(key);
+					}
+				}
+			}
+		}
+
+		/**
+		 * @param events the entries removed
+		 */
+		private void handleRemoved(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events) {
+			CacheBounds bounds = BOUNDS.get(policyName);
+			if (bounds == null) {
+				return;
+			}
+			for (CacheEntryEvent<? extends String, ? extends ResultHolder> event : events) {
+				bounds.removed(event.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Listener that tracks the time each entry was added, so the time to live can be applied.
+	 */
+	private static final class AddedTimeListener implements CacheEntryCreatedListener<String, ResultHolder>,
+			CacheEntryUpdatedListener<String, ResultHolder>, CacheEntryRemovedListener<String, ResultHolder>,
+			CacheEntryExpiredListener<String, ResultHolder>, Serializable {
+
+		private final String policyName;
+
+		/**
+		 * @param policyName the policy name
+		 */
+		private AddedTimeListener(final String policyName) {
+			this.policyName = policyName;
+		}
+
+		@Override
+		public void onCreated(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events)
+				throws CacheEntryListenerException {
+			handleAdded(events);
+		}
+
+		@Override
+		public void onUpdated(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events)
+				throws CacheEntryListenerException {
+			handleAdded(events);
+		}
+
+		@Override
+		public void onRemoved(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events)
+				throws CacheEntryListenerException {
+			handleRemoved(events);
+		}
+
+		@Override
+		public void onExpired(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events)
+				throws CacheEntryListenerException {
+			handleRemoved(events);
+		}
+
+		/**
+		 * @param events the entries added
+		 */
+		private void handleAdded(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events) {
+			Map<String, Long> added = ADDED_TIMES.get(policyName);
+			if (added == null) {
+				return;
+			}
+			long now = System.currentTimeMillis();
+			for (CacheEntryEvent<? extends String, ? extends ResultHolder> event : events) {
+				added.put(event.getKey(), now);
+			}
+		}
+
+		/**
+		 * @param events the entries removed
+		 */
+		private void handleRemoved(final Iterable<CacheEntryEvent<? extends String, ? extends ResultHolder>> events) {
+			Map<String, Long> added = ADDED_TIMES.get(policyName);
+			if (added == null) {
+				return;
+			}
+			for (CacheEntryEvent<? extends String, ? extends ResultHolder> event : events) {
+				added.remove(event.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Removes the expired entry, unless it has been put again since its added time was removed. Runs atomically for the entry, so a result put
+	 * by another thread is not removed by the sweeper.
+	 */
+	private static final class RemoveIfNotAdded implements EntryProcessor<String, ResultHolder, Void>, Serializable {
+
+		private final String policyName;
+
+		/**
+		 * @param policyName the policy name
+		 */
+		private RemoveIfNotAdded(final String policyName) {
+			this.policyName = policyName;
+		}
+
+		@Override
+		public Void process(final MutableEntry<String, ResultHolder> entry, final Object... arguments) throws EntryProcessorException {
+			Map<String, Long> added = ADDED_TIMES.get(policyName);
+			if (entry.exists() && (added == null || !added.containsKey(entry.getKey()))) {
+				entry.remove();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Holds the sweeper so its thread is only started when a policy needs it.
+	 */
+	private static final class TimeToLiveSweeper {
+
+		private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable runnable) {
+				Thread thread = new Thread(runnable, "polling-result-cache-sweeper");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		/**
+		 * Private constructor for static class.
+		 */
+		private TimeToLiveSweeper() {
+			//No-impl
+		}
+	}
+
+	/**
+	 * Counts the bytes written.
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(final int b) {
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			count += len;
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The retry policy for a polling service panel.
+ * <p>
+ * A failed service call is retried up to the maximum attempts, waiting an exponentially increasing backoff between attempts. Only the retryable
+ * exceptions are retried. If no retryable exceptions are set, all exceptions are retried. A service call that could not be started (usually no
+ * threads available) also waits the backoff before the next attempt and counts towards the maximum attempts.
+ * </p>
+ * <p>
+ * When the circuit breaker is used, a service action that keeps failing across all panels fails fast for a period (see
+ * {@link ServiceCircuitBreaker}).
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public class RetryPolicy implements Serializable {
+
+	private final List<Class<? extends Throwable>> retryableExceptions = new ArrayList<>();
+
+	private int maxAttempts = 3;
+
+	private long initialBackoff = 1000;
+
+	private double multiplier = 2.0;
+
+	private long maxBackoff = 30000;
+
+	private boolean useCircuitBreaker = true;
+
+	/**
+	 * @return the maximum number of attempts (including the first attempt)
+	 */
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * @param maxAttempts the maximum number of attempts (including the first attempt)
+	 */
+	public void setMaxAttempts(final int maxAttempts) {
+		this.maxAttempts = maxAttempts < 1 ? 1 : maxAttempts;
+	}
+
+	/**
+	 * @return the backoff in milli seconds before the first retry
+	 */
+	public long getInitialBackoff() {
+		return initialBackoff;
+	}
+
+	/**
+	 * @param initialBackoff the backoff in milli seconds before the first retry
+	 */
+	public void setInitialBackoff(final long initialBackoff) {
+		this.initialBackoff = initialBackoff < 0 ? 0 : initialBackoff;
+	}
+
+	/**
+	 * @return the multiplier applied to the backoff for each retry
+	 */
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	/**
+	 * @param multiplier the multiplier applied to the backoff for each retry
+	 */
+	public void setMultiplier(final double multiplier) {
+		this.multiplier = multiplier < 1 ? 1 : multiplier;
+	}
+
+	/**
+	 * @return the maximum backoff in milli seconds
+	 */
+	public long getMaxBackoff() {
+		return maxBackoff;
+	}
+
+	/**
+	 * @param maxBackoff the maximum backoff in milli seconds
+	 */
+	public void setMaxBackoff(final long maxBackoff) {
+		this.maxBackoff = maxBackoff < 0 ? 0 : maxBackoff;
+	}
+
+	/**
+	 * @return true if use the circuit breaker for the service action
+	 */
+	public boolean isUseCircuitBreaker() {
+		return useCircuitBreaker;
+	}
+
+	/**
+	 * @param useCircuitBreaker true if use the circuit breaker for the service action
+	 */
+	public void setUseCircuitBreaker(final boolean useCircuitBreaker) {
+		this.useCircuitBreaker = useCircuitBreaker;
+	}
+
+	/**
+	 * @param exceptionClass an exception (or cause of the exception) that can be retried
+	 */
+	public void addRetryableException(final Class<? extends Throwable> exceptionClass) {
+		retryableExceptions.add(exceptionClass);
+	}
+
+	/**
+	 * @return the exceptions that can be retried
+	 */
+	public List<Class<? extends Throwable>> getRetryableExceptions() {
+		return Collections.unmodifiableList(retryableExceptions);
+	}
+
+	/**
+	 * @param excp the exception
+	 * @return true if the exception or one of its causes can be retried
+	 */
+	public boolean isRetryable(final Throwable excp) {
+		if (excp == null || excp instanceof CircuitOpenException) {
+			return false;
+		}
+		if (retryableExceptions.isEmpty()) {
+			return true;
+		}
+		for (Throwable cause = excp; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+			for (Class<? extends Throwable> clazz : retryableExceptions) {
+				if (clazz.isInstance(cause)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param attempt the number of attempts made
+	 * @return the backoff in milli seconds before the next attempt
+	 */
+	public long getBackoff(final int attempt) {
+		double backoff = initialBackoff * Math.pow(multiplier, Math.max(attempt - 1, 0));
+		return (long) Math.min(backoff, maxBackoff);
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breaker for each service action, shared by all the polling panels.
+ * <p>
+ * After a number of consecutive failures (see {@link PollingProperties#getCircuitFailureThreshold()}), such as a service exception or a service
+ * that timed out, the circuit opens and service calls fail fast for a period (see {@link PollingProperties#getCircuitOpenDuration()}). After the
+ * period one trial call is allowed. If the trial call succeeds the circuit closes, otherwise it opens for another period.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class ServiceCircuitBreaker {
+
+	private static final Map<String, Circuit> CIRCUITS = new ConcurrentHashMap<>();
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private ServiceCircuitBreaker() {
+		//No-impl
+	}
+
+	/**
+	 * Check if the service action should fail fast. When the open period has passed, the caller is allowed the trial call.
+	 *
+	 * @param action the service action name
+	 * @return true if the circuit is open and the service should not be called
+	 */
+	public static boolean isOpen(final String action) {
+		Circuit circuit = action == null ? null : CIRCUITS.get(action);
+		return circuit != null && circuit.isOpen();
+	}
+
+	/**
+	 * @param action the service action name
+	 */
+	public static void recordSuccess(final String action) {
+		if (action != null) {
+			CIRCUITS.remove(action);
+		}
+	}
+
+	/**
+	 * @param action the service action name
+	 */
+	public static void recordFailure(final String action) {
+		if (action != null) {
+			CIRCUITS.computeIfAbsent(action, key -> new Circuit()).recordFailure();
+		}
+	}
+
+	/**
+	 * State of the circuit for a service action.
+	 */
+	private static final class Circuit {
+
+		private int failures;
+
+		private long openedAt;
+
+		/**
+		 * @return true if open
+		 */
+		private synchronized boolean isOpen() {
+			if (openedAt == 0) {
+				return false;
+			}
+			long now = System.currentTimeMillis();
+			if (now - openedAt < PollingProperties.getCircuitOpenDuration()) {
+				return true;
+			}
+			// Allow a trial call and keep failing fast the other calls until it finishes
+			openedAt = now;
+			return false;
+		}
+
+		/**
+		 * Record a failure.
+		 */
+		private synchronized void recordFailure() {
+			failures++;
+			if (failures >= PollingProperties.getCircuitFailureThreshold()) {
+				openedAt = System.currentTimeMillis();
+			}
+		}
+	}
+
+}
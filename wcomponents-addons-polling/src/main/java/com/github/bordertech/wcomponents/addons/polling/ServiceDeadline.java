@@ -0,0 +1,164 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.service.ServiceAction;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The deadline of the service action running on the current thread.
+ * <p>
+ * When a polling panel uses service deadlines (see {@link PollingServicePanel#setUseServiceDeadline(boolean)}), the deadline is taken from the
+ * panel timeout. Service code can check the deadline and stop early. A service action still running at its deadline is interrupted.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class ServiceDeadline {
+
+	private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+	private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, "polling-deadline-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private ServiceDeadline() {
+		//No-impl
+	}
+
+	/**
+	 * @return the deadline in milli seconds since the epoch, or 0 if no deadline
+	 */
+	public static long getDeadline() {
+		Long deadline = DEADLINE.get();
+		return deadline == null ? 0 : deadline;
+	}
+
+	/**
+	 * @return the time in milli seconds remaining before the deadline, or {@link Long#MAX_VALUE} if no deadline
+	 */
+	public static long getRemaining() {
+		long deadline = getDeadline();
+		return deadline == 0 ? Long.MAX_VALUE : Math.max(deadline - System.currentTimeMillis(), 0);
+	}
+
+	/**
+	 * @return true if the deadline has passed
+	 */
+	public static boolean isExpired() {
+		return getRemaining() == 0;
+	}
+
+	/**
+	 * Wrap the service action so it runs with the deadline.
+	 *
+	 * @param action the service action
+	 * @param deadline the deadline in milli seconds since the epoch, or 0 if no deadline
+	 * @param actionName the service action name used in metrics
+	 * @param pool the thread pool name used in metrics
+	 * @param <S> the criteria type
+	 * @param <T> the result type
+	 * @return the service action that runs with the deadline
+	 */
+	public static <S, T> ServiceAction<S, T> wrap(final ServiceAction<S, T> action, final long deadline, final String actionName,
+			final String pool) {
+		if (deadline <= 0) {
+			return action;
+		}
+		return new DeadlineServiceAction<>(action, deadline, actionName, pool);
+	}
+
+	/**
+	 * Service action that runs with a deadline and is interrupted if still running at the deadline.
+	 *
+	 * @param <S> the criteria type
+	 * @param <T> the result type
+	 */
+	private static final class DeadlineServiceAction<S, T> implements ServiceAction<S, T> {
+
+		private final ServiceAction<S, T> action;
+
+		private final long deadline;
+
+		private final String actionName;
+
+		private final String pool;
+
+		/**
+		 * @param action the service action
+		 * @param deadline the deadline in milli seconds since the epoch
+		 * @param actionName the service action name
+		 * @param pool the thread pool name
+		 */
+		private DeadlineServiceAction(final ServiceAction<S, T> action, final long deadline, final String actionName, final String pool) {
+			this.action = action;
+			this.deadline = deadline;
+			this.actionName = actionName;
+			this.pool = pool;
+		}
+
+		@Override
+		public T service(final S criteria) {
+			Watchdog watchdog = new Watchdog(Thread.currentThread());
+			ScheduledFuture<?> scheduled = WATCHDOG.schedule(watchdog, Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+			DEADLINE.set(deadline);
+			try {
+				return action.service(criteria);
+			} finally {
+				DEADLINE.remove();
+				scheduled.cancel(false);
+				if (watchdog.finish()) {
+					// Do not leave the pool thread interrupted
+					Thread.interrupted();
+					PollingMetricsFactory.getInstance().incrementDeadlineExceeded(actionName, pool);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Interrupts the service thread at the deadline, unless the service has finished.
+	 */
+	private static final class Watchdog implements Runnable {
+
+		private final Thread thread;
+
+		private boolean finished;
+
+		private boolean interrupted;
+
+		/**
+		 * @param thread the thread running the service
+		 */
+		private Watchdog(final Thread thread) {
+			this.thread = thread;
+		}
+
+		@Override
+		public synchronized void run() {
+			if (!finished) {
+				interrupted = true;
+				thread.interrupt();
+			}
+		}
+
+		/**
+		 * @return true if the service thread was interrupted at the deadline
+		 */
+		private synchronized boolean finish() {
+			finished = true;
+			return interrupted;
+		}
+	}
+
+}
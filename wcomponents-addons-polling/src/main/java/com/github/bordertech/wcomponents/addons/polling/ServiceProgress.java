@@ -0,0 +1,68 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import java.io.Serializable;
+
+/**
+ * Progress reported by a running service action.
+ *
+ * @see ServiceProgressRegistry#report(int, String, long)
+ * @since 1.0.6
+ */
+public final class ServiceProgress implements Serializable {
+
+	private final int percent;
+
+	private final String phase;
+
+	private final long itemsProcessed;
+
+	/**
+	 * @param percent the percent complete (0 to 100), or -1 if not known
+	 * @param phase the name of the current phase, or null
+	 * @param itemsProcessed the number of items processed, or -1 if not known
+	 */
+	public ServiceProgress(final int percent, final String phase, final long itemsProcessed) {
+		this.percent = percent < 0 ? -1 : Math.min(percent, 100);
+		this.phase = phase;
+		this.itemsProcessed = itemsProcessed < 0 ? -1 : itemsProcessed;
+	}
+
+	/**
+	 * @return the percent complete (0 to 100), or -1 if not known
+	 */
+	public int getPercent() {
+		return percent;
+	}
+
+	/**
+	 * @return the name of the current phase, or null
+	 */
+	public String getPhase() {
+		return phase;
+	}
+
+	/**
+	 * @return the number of items processed, or -1 if not known
+	 */
+	public long getItemsProcessed() {
+		return itemsProcessed;
+	}
+
+	/**
+	 * @return the phase and items processed as text to display, or null if neither is known
+	 */
+	public String getDescription() {
+		StringBuilder text = new StringBuilder();
+		if (phase != null) {
+			text.append(phase);
+		}
+		if (itemsProcessed >= 0) {
+			if (text.length() > 0) {
+				text.append(' ');
+			}
+			text.append('(').append(itemsProcessed).append(" items)");
+		}
+		return text.length() == 0 ? null : text.toString();
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.service.ServiceAction;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Channel for a running service action to publish its progress to the polling panel.
+ * <p>
+ * The polling panel wraps its service action (see {@link #wrap(ServiceAction, String)}) so the thread running the service knows its progress
+ * key. The service action calls {@link #report(int, String, long)} as it works and the panel reads the latest progress on each poll. The
+ * progress is removed when the service action finishes.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class ServiceProgressRegistry {
+
+	private static final Map<String, ServiceProgress> PROGRESS = new ConcurrentHashMap<>();
+
+	private static final ThreadLocal<String> CURRENT_KEY = new ThreadLocal<>();
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private ServiceProgressRegistry() {
+		//No-impl
+	}
+
+	/**
+	 * Report the progress of the service action running on the current thread. Does nothing if the service action was not started by a
+	 * polling panel.
+	 *
+	 * @param percent the percent complete (0 to 100), or -1 if not known
+	 * @param phase the name of the current phase, or null
+	 * @param itemsProcessed the number of items processed, or -1 if not known
+	 */
+	public static void report(final int percent, final String phase, final long itemsProcessed) {
+		String key = CURRENT_KEY.get();
+		if (key != null) {
+			PROGRESS.put(key, new ServiceProgress(percent, phase, itemsProcessed));
+		}
+	}
+
+	/**
+	 * @param key the progress key
+	 * @return the latest progress reported, or null if no progress reported
+	 */
+	public static ServiceProgress getProgress(final String key) {
+		return key == null ? null : PROGRESS.get(key);
+	}
+
+	/**
+	 * Wrap the service action so it can report progress against the key.
+	 *
+	 * @param action the service action
+	 * @param key the progress key
+	 * @param <S> the criteria type
+	 * @param <T> the result type
+	 * @return the service action that reports progress
+	 */
+	public static <S, T> ServiceAction<S, T> wrap(final ServiceAction<S, T> action, final String key) {
+		if (key == null) {
+			return action;
+		}
+		return new ProgressServiceAction<>(action, key);
+	}
+
+	/**
+	 * Service action that makes the progress key available to the thread running the service.
+	 *
+	 * @param <S> the criteria type
+	 * @param <T> the result type
+	 */
+	private static final class ProgressServiceAction<S, T> implements ServiceAction<S, T> {
+
+		private final ServiceAction<S, T> action;
+
+		private final String key;
+
+		/**
+		 * @param action the service action
+		 * @param key the progress key
+		 */
+		private ProgressServiceAction(final ServiceAction<S, T> action, final String key) {
+			this.action = action;
+			this.key = key;
+		}
+
+		@Override
+		public T service(final S criteria) {
+			String previous = CURRENT_KEY.get();
+			CURRENT_KEY.set(key);
+			try {
+				return action.service(criteria);
+			} finally {
+				PROGRESS.remove(key);
+				if (previous == null) {
+					CURRENT_KEY.remove();
+				} else {
+					CURRENT_KEY.set(previous);
+				}
+			}
+		}
+	}
+
+}
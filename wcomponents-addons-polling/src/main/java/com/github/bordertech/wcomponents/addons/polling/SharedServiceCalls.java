@@ -0,0 +1,149 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.TaskFuture;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the service calls in progress for a cache key, so panels requesting the same key share the one service call.
+ * <p>
+ * Each panel that attaches to a service call must detach when it no longer needs the result. The service call is only cancelled when the last
+ * panel detaches before the service call has finished. When the last panel detaches, a service call running in this JVM is released from the
+ * local task registry.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class SharedServiceCalls {
+
+	private static final Map<String, SharedCall> CALLS = new ConcurrentHashMap<>();
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private SharedServiceCalls() {
+		//No-impl
+	}
+
+	/**
+	 * Attach to the service call in progress for this key.
+	 *
+	 * @param key the cache key
+	 * @param <T> the future result type
+	 * @return the future of the service call in progress, or null if no service call in progress
+	 */
+	public static <T> TaskFuture<T> attach(final String key) {
+		SharedCall call = CALLS.computeIfPresent(key, (k, current) -> {
+			if (current.future.isDone()) {
+				return null;
+			}
+			current.refs++;
+			return current;
+		});
+		return call == null ? null : (TaskFuture<T>) call.future;
+	}
+
+	/**
+	 * Register a new service call for this key. If another service call has been registered in the meantime, then it is attached to instead
+	 * and the new service call is cancelled so it does not hold a thread doing the same work.
+	 *
+	 * @param key the cache key
+	 * @param future the future of the new service call
+	 * @param progressKey the key the new service call reports its progress against, or null
+	 * @param <T> the future result type
+	 * @return the future of the registered service call
+	 */
+	public static <T> TaskFuture<T> register(final String key, final TaskFuture<T> future, final String progressKey) {
+		SharedCall call = CALLS.compute(key, (k, current) -> {
+			if (current == null || current.future.isDone()) {
+				return new SharedCall(future, progressKey);
+			}
+			current.refs++;
+			return current;
+		});
+		if (!isSameFuture(call.future, future)) {
+			// Lost the race to another service call
+			future.cancel(true);
+		}
+		return (TaskFuture<T>) call.future;
+	}
+
+	/**
+	 * Detach from the service call. If no panels are attached to the service call and it is still running, it will be cancelled. The service call
+	 * is released once no panels are attached.
+	 *
+	 * @param key the cache key
+	 * @param future the future of the service call
+	 */
+	public static void detach(final String key, final TaskFuture<?> future) {
+		if (key == null || future == null) {
+			return;
+		}
+		CALLS.computeIfPresent(key, (k, current) -> {
+			if (!isSameFuture(current.future, future)) {
+				return current;
+			}
+			current.refs--;
+			if (current.refs > 0) {
+				// Keep the finished service call until the other panels have collected the result
+				return current;
+			}
+			if (!current.future.isDone()) {
+				current.future.cancel(true);
+			}
+			if (current.future instanceof LocalTaskFuture) {
+				((LocalTaskFuture) current.future).release();
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * @param key the cache key
+	 * @return true if a service call is in progress for this key
+	 */
+	public static boolean isInProgress(final String key) {
+		SharedCall call = key == null ? null : CALLS.get(key);
+		return call != null && !call.future.isDone();
+	}
+
+	/**
+	 * @param key the cache key
+	 * @return the key the service call in progress reports its progress against, or null
+	 */
+	public static String getProgressKey(final String key) {
+		SharedCall call = key == null ? null : CALLS.get(key);
+		return call == null ? null : call.progressKey;
+	}
+
+	/**
+	 * @param current the registered future
+	 * @param future the future to check
+	 * @return true if the same future
+	 */
+	private static boolean isSameFuture(final TaskFuture<?> current, final TaskFuture<?> future) {
+		return current == future || current.equals(future);
+	}
+
+	/**
+	 * Service call and the number of panels attached.
+	 */
+	private static final class SharedCall {
+
+		private final TaskFuture<?> future;
+
+		private final String progressKey;
+
+		private int refs = 1;
+
+		/**
+		 * @param future the future of the service call
+		 * @param progressKey the key the service call reports its progress against
+		 */
+		private SharedCall(final TaskFuture<?> future, final String progressKey) {
+			this.future = future;
+			this.progressKey = progressKey;
+		}
+	}
+
+}
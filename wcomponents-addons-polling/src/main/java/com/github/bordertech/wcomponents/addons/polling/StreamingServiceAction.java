@@ -0,0 +1,61 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.service.ServiceAction;
+
+/**
+ * Adapts a {@link ChunkedServiceAction} to a service action.
+ * <p>
+ * Each chunk is added to the {@link ChunkBuffer} for the key (if still open). The service result is the list of all the chunks held by the
+ * buffer, so the chunks are only held once and the result can be cached and loaded like any other service result. The buffer is closed when the
+ * service action finishes.
+ * </p>
+ *
+ * @param <S> the criteria type
+ * @param <C> the chunk type
+ * @since 1.0.6
+ */
+public final class StreamingServiceAction<S, C> implements ServiceAction<S, ChunkList<C>> {
+
+	private final ChunkedServiceAction<S, C> action;
+
+	private final String bufferKey;
+
+	/**
+	 * @param action the chunked service action
+	 * @param bufferKey the key of the buffer to emit the chunks to
+	 */
+	public StreamingServiceAction(final ChunkedServiceAction<S, C> action, final String bufferKey) {
+		this.action = action;
+		this.bufferKey = bufferKey;
+	}
+
+	/**
+	 * @return the chunked service action
+	 */
+	public ChunkedServiceAction<S, C> getChunkedAction() {
+		return action;
+	}
+
+	@Override
+	public ChunkList<C> service(final S criteria) {
+		final ChunkBuffer<C> buffer = ChunkBuffer.get(bufferKey);
+		final ChunkList<C> result = buffer == null ? new ChunkList<C>() : buffer.getChunks();
+		try {
+			action.service(criteria, new ChunkedServiceAction.ChunkSink<C>() {
+				@Override
+				public void emit(final C chunk) {
+					if (buffer == null) {
+						result.append(chunk);
+					} else {
+						buffer.put(chunk);
+					}
+				}
+			});
+		} finally {
+			// The full result replaces the chunks collected
+			ChunkBuffer.close(bufferKey);
+		}
+		return result;
+	}
+
+}
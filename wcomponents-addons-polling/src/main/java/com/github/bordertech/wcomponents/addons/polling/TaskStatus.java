@@ -0,0 +1,17 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+/**
+ * Status of a service call held in the {@link TaskStatusRegistry}.
+ *
+ * @since 1.0.6
+ */
+public enum TaskStatus {
+	/**
+	 * The service call has been started.
+	 */
+	RUNNING,
+	/**
+	 * The service call has finished and its result (or exception) is available in the result cache.
+	 */
+	DONE
+}
@@ -0,0 +1,43 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+/**
+ * Holds the status of the service calls started by polling panels.
+ * <p>
+ * A clustered deployment without sticky sessions should provide an implementation backed by a distributed store, so a poll that lands on a node
+ * that is not running the service call can tell the call has finished and load its result from the shared result cache. The default
+ * implementation only holds the status on the local node.
+ * </p>
+ * <p>
+ * The registry is held by the service action marking the task as done, so implementations should be serializable.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public interface TaskStatusRegistry {
+
+	/**
+	 * @param taskId the task id
+	 * @param status the task status
+	 */
+	void setStatus(final String taskId, final TaskStatus status);
+
+	/**
+	 * @param taskId the task id
+	 * @return the task status, or null if not known
+	 */
+	TaskStatus getStatus(final String taskId);
+
+	/**
+	 * @param taskId the task id to remove
+	 */
+	void remove(final String taskId);
+
+	/**
+	 * A clustered registry is shared by all nodes, so polls can land on a node that is not running the service call. Running service calls are
+	 * then not checked for abandonment, as the node running the service call does not see the polls handled by the other nodes.
+	 *
+	 * @return true if the statuses are shared across the cluster
+	 */
+	boolean isClustered();
+
+}
@@ -0,0 +1,40 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.service.ServiceAction;
+
+/**
+ * Service action that marks its task as done in the {@link TaskStatusRegistry} when the service has finished.
+ *
+ * @param <S> the criteria type
+ * @param <T> the result type
+ * @since 1.0.6
+ */
+public final class TaskStatusServiceAction<S, T> implements ServiceAction<S, T> {
+
+	private final ServiceAction<S, T> action;
+
+	private final String taskId;
+
+	private final TaskStatusRegistry registry;
+
+	/**
+	 * @param action the service action
+	 * @param taskId the task id
+	 * @param registry the registry holding the task status
+	 */
+	public TaskStatusServiceAction(final ServiceAction<S, T> action, final String taskId, final TaskStatusRegistry registry) {
+		this.action = action;
+		this.taskId = taskId;
+		this.registry = registry;
+	}
+
+	@Override
+	public T service(final S criteria) {
+		try {
+			return action.service(criteria);
+		} finally {
+			registry.setStatus(taskId, TaskStatus.DONE);
+		}
+	}
+
+}
@@ -0,0 +1,270 @@
+package com.github.bordertech.wcomponents.addons.polling;
+
+import com.github.bordertech.taskmaster.TaskFuture;
+import com.github.bordertech.taskmaster.service.ResultHolder;
+import com.github.bordertech.taskmaster.service.ServiceAction;
+import com.github.bordertech.taskmaster.service.exception.RejectedServiceException;
+import com.github.bordertech.taskmaster.service.exception.ServiceException;
+import com.github.bordertech.taskmaster.service.impl.ResultHolderDefault;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.cache.Cache;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Runs service actions on virtual threads.
+ * <p>
+ * Each service action is started on its own thread, so blocking service calls do not use up a platform thread pool and are not rejected when a
+ * pool is busy. The number of service actions running at the same time in a pool is limited by a semaphore (see
+ * {@link PollingProperties#getVirtualConcurrency(String)}). Service actions waiting for a permit are queued, up to the pool queue size (see
+ * {@link PollingProperties#getVirtualQueueSize(String)}), and rejected once the queue is full.
+ * </p>
+ * <p>
+ * Virtual threads are used when running on a JVM that provides them (Java 21 or later). Otherwise each pool is a fixed pool of daemon threads
+ * sized to the pool concurrency, so service actions waiting to run are queued without holding a thread. Service actions are rejected once the
+ * pool queue is full.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class VirtualThreadServiceExecutor {
+
+	private static final Log LOG = LogFactory.getLog(VirtualThreadServiceExecutor.class);
+
+	/**
+	 * The virtual thread executor, or null if virtual threads are not available.
+	 */
+	private static final ExecutorService VIRTUAL_EXECUTOR = createVirtualExecutor();
+
+	private static final Map<String, Semaphore> PERMITS = new ConcurrentHashMap<>();
+
+	private static final Map<String, ThreadPoolExecutor> PLATFORM_POOLS = new ConcurrentHashMap<>();
+
+	private static final String DEFAULT_POOL = "default";
+
+	/**
+	 * Private constructor for static class.
+	 */
+	private VirtualThreadServiceExecutor() {
+		//No-impl
+	}
+
+	/**
+	 * Submit a service action.
+	 *
+	 * @param criteria the service criteria
+	 * @param action the service action
+	 * @param cache the cache to hold the result, or null if not cached
+	 * @param key the cache key
+	 * @param pool the pool name or null for the default pool
+	 * @param <S> the criteria type
+	 * @param <T> the result type
+	 * @return the future of the service action
+	 * @throws RejectedServiceException the pool queue is full
+	 */
+	public static <S extends Serializable, T extends Serializable> TaskFuture<ResultHolder<S, T>> submit(final S criteria,
+			final ServiceAction<S, T> action, final Cache<String, ResultHolder> cache, final String key, final String pool)
+			throws RejectedServiceException {
+
+		// Check if result already cached
+		if (cache != null) {
+			ResultHolder<S, T> cached = cache.get(key);
+			if (cached != null) {
+				return LocalTaskFuture.register(CompletableFuture.completedFuture(cached));
+			}
+		}
+
+		if (VIRTUAL_EXECUTOR == null) {
+			// Platform pool threads are limited to the pool concurrency
+			FutureTask<ResultHolder<S, T>> task = new FutureTask<>(new Callable<ResultHolder<S, T>>() {
+				@Override
+				public ResultHolder<S, T> call() {
+					return invokeAndCache(criteria, action, cache, key);
+				}
+			});
+			LocalTaskFuture<ResultHolder<S, T>> future = LocalTaskFuture.register(task);
+			try {
+				getPlatformPool(pool).execute(task);
+			} catch (RejectedExecutionException e) {
+				future.release();
+				throw new RejectedServiceException("Pool [" + getPoolName(pool) + "] queue is full.");
+			}
+			return future;
+		}
+
+		// Virtual threads are cheap to park so wait for a permit on the thread
+		final Semaphore permits = getPermits(pool);
+		if (permits.getQueueLength() >= PollingProperties.getVirtualQueueSize(pool)) {
+			throw new RejectedServiceException("Pool [" + getPoolName(pool) + "] queue is full.");
+		}
+		FutureTask<ResultHolder<S, T>> task = new FutureTask<>(new Callable<ResultHolder<S, T>>() {
+			@Override
+			public ResultHolder<S, T> call() throws InterruptedException {
+				permits.acquire();
+				try {
+					return invokeAndCache(criteria, action, cache, key);
+				} finally {
+					permits.release();
+				}
+			}
+		});
+		TaskFuture<ResultHolder<S, T>> future = LocalTaskFuture.register(task);
+		VIRTUAL_EXECUTOR.execute(task);
+		return future;
+	}
+
+	/**
+	 * @param pool the pool name or null for the default pool
+	 * @return the number of service actions waiting for a permit in the pool
+	 */
+	public static int getQueueLength(final String pool) {
+		String name = pool == null ? DEFAULT_POOL : pool;
+		if (VIRTUAL_EXECUTOR == null) {
+			ThreadPoolExecutor executor = PLATFORM_POOLS.get(name);
+			return executor == null ? 0 : executor.getQueue().size();
+		}
+		Semaphore permits = PERMITS.get(name);
+		return permits == null ? 0 : permits.getQueueLength();
+	}
+
+	/**
+	 * @return the number of service actions waiting to run across all pools
+	 */
+	public static int getTotalQueueLength() {
+		int total = 0;
+		for (Semaphore permits : PERMITS.values()) {
+			total += permits.getQueueLength();
+		}
+		for (ThreadPoolExecutor executor : PLATFORM_POOLS.values()) {
+			total += executor.getQueue().size();
+		}
+		return total;
+	}
+
+	/**
+	 * @return true if running service actions on virtual threads
+	 */
+	public static boolean isVirtualThreads() {
+		return VIRTUAL_EXECUTOR != null;
+	}
+
+	/**
+	 * @param criteria the service criteria
+	 * @param action the service action
+	 * @param cache the cache to hold the result, or null if not cached
+	 * @param key the cache key
+	 * @param <S> the criteria type
+	 * @param <T> the result type
+	 * @return the result holder with the result or exception
+	 */
+	private static <S extends Serializable, T extends Serializable> ResultHolder<S, T> invokeAndCache(final S criteria,
+			final ServiceAction<S, T> action, final Cache<String, ResultHolder> cache, final String key) {
+		ResultHolder<S, T> result = invokeAction(criteria, action);
+		if (cache != null) {
+			cache.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @param criteria the service criteria
+	 * @param action the service action
+	 * @param <S> the criteria type
+	 * @param <T> the result type
+	 * @return the result holder with the result or exception
+	 */
+	private static <S extends Serializable, T extends Serializable> ResultHolder<S, T> invokeAction(final S criteria, final ServiceAction<S, T> action) {
+		try {
+			T result = action.service(criteria);
+			return new ResultHolderDefault(criteria, result);
+		} catch (Exception e) {
+			return new ResultHolderDefault(new ServiceException(e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * @param pool the pool name or null for the default pool
+	 * @return the pool name
+	 */
+	private static String getPoolName(final String pool) {
+		return pool == null ? DEFAULT_POOL : pool;
+	}
+
+	/**
+	 * @param pool the pool name or null for the default pool
+	 * @return the permits for the pool
+	 */
+	private static Semaphore getPermits(final String pool) {
+		String name = pool == null ? DEFAULT_POOL : pool;
+		return PERMITS.computeIfAbsent(name, k -> new Semaphore(PollingProperties.getVirtualConcurrency(pool), true));
+	}
+
+	/**
+	 * @param pool the pool name or null for the default pool
+	 * @return the platform thread pool used when virtual threads are not available
+	 */
+	private static ThreadPoolExecutor getPlatformPool(final String pool) {
+		String name = pool == null ? DEFAULT_POOL : pool;
+		return PLATFORM_POOLS.computeIfAbsent(name, k -> {
+			int concurrency = PollingProperties.getVirtualConcurrency(pool);
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(PollingProperties.getVirtualQueueSize(pool)), new DaemonThreadFactory(name));
+			// Do not keep idle threads
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		});
+	}
+
+	/**
+	 * @return the virtual thread executor, or null if virtual threads are not available
+	 */
+	private static ExecutorService createVirtualExecutor() {
+		try {
+			ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			LOG.info("Service actions will run on virtual threads.");
+			return executor;
+		} catch (ReflectiveOperationException e) {
+			LOG.info("Virtual threads not available. Service actions will run on platform threads.");
+			return null;
+		}
+	}
+
+	/**
+	 * Creates named daemon threads.
+	 */
+	private static final class DaemonThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		private final String pool;
+
+		/**
+		 * @param pool the pool name
+		 */
+		private DaemonThreadFactory(final String pool) {
+			this.pool = pool;
+		}
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			Thread thread = new Thread(runnable, "polling-service-" + pool + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,209 @@
+package com.github.bordertech.wcomponents.addons.polling.impl;
+
+import com.github.bordertech.wcomponents.addons.polling.PollingMetrics;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Default polling metrics held in memory and registered as a JMX MBean.
+ * <p>
+ * The metrics are held statically, so they are shared by every instance in the process and one instance is registered as the MBean.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public class DefaultPollingMetrics implements PollingMetrics, PollingMetricsMXBean {
+
+	private static final Log LOG = LogFactory.getLog(DefaultPollingMetrics.class);
+
+	/**
+	 * The JMX object name.
+	 */
+	public static final String OBJECT_NAME = "com.github.bordertech.wcomponents.addons.polling:type=PollingMetrics";
+
+	private static final AtomicBoolean REGISTERED = new AtomicBoolean();
+
+	private static final Map<String, PollingHistogram> DURATIONS = new ConcurrentHashMap<>();
+
+	private static final Map<String, PollingHistogram> NO_RESULT_POLLS = new ConcurrentHashMap<>();
+
+	private static final Map<String, LongAdder> REJECTED = new ConcurrentHashMap<>();
+
+	private static final Map<String, LongAdder> TIMEOUTS = new ConcurrentHashMap<>();
+
+	private static final Map<String, LongAdder> DEADLINES_EXCEEDED = new ConcurrentHashMap<>();
+
+	private static final Map<String, LongAdder> CACHE_HITS = new ConcurrentHashMap<>();
+
+	private static final Map<String, LongAdder> CACHE_MISSES = new ConcurrentHashMap<>();
+
+	/**
+	 * Create the metrics and register them with the platform MBean server.
+	 */
+	public DefaultPollingMetrics() {
+		registerMBean();
+	}
+
+	@Override
+	public void recordPollingDuration(final String action, final String pool, final long duration) {
+		getHistogram(DURATIONS, action, pool).record(duration);
+	}
+
+	@Override
+	public void recordNoResultPolls(final String action, final String pool, final int polls) {
+		getHistogram(NO_RESULT_POLLS, action, pool).record(polls);
+	}
+
+	@Override
+	public void incrementRejected(final String action, final String pool) {
+		getCounter(REJECTED, action, pool).increment();
+	}
+
+	@Override
+	public void incrementTimeout(final String action, final String pool) {
+		getCounter(TIMEOUTS, action, pool).increment();
+	}
+
+	@Override
+	public void incrementDeadlineExceeded(final String action, final String pool) {
+		getCounter(DEADLINES_EXCEEDED, action, pool).increment();
+	}
+
+	@Override
+	public void incrementCacheHit(final String action, final String pool) {
+		getCounter(CACHE_HITS, action, pool).increment();
+	}
+
+	@Override
+	public void incrementCacheMiss(final String action, final String pool) {
+		getCounter(CACHE_MISSES, action, pool).increment();
+	}
+
+	@Override
+	public Map<String, PollingHistogram.Snapshot> getPollingDurations() {
+		return getSnapshots(DURATIONS);
+	}
+
+	@Override
+	public Map<String, PollingHistogram.Snapshot> getNoResultPolls() {
+		return getSnapshots(NO_RESULT_POLLS);
+	}
+
+	@Override
+	public Map<String, Long> getRejectedCounts() {
+		return getCounts(REJECTED);
+	}
+
+	@Override
+	public Map<String, Long> getTimeoutCounts() {
+		return getCounts(TIMEOUTS);
+	}
+
+	@Override
+	public Map<String, Long> getDeadlineExceededCounts() {
+		return getCounts(DEADLINES_EXCEEDED);
+	}
+
+	@Override
+	public Map<String, Long> getCacheHitCounts() {
+		return getCounts(CACHE_HITS);
+	}
+
+	@Override
+	public Map<String, Long> getCacheMissCounts() {
+		return getCounts(CACHE_MISSES);
+	}
+
+	@Override
+	public void reset() {
+		DURATIONS.clear();
+		NO_RESULT_POLLS.clear();
+		REJECTED.clear();
+		TIMEOUTS.clear();
+		DEADLINES_EXCEEDED.clear();
+		CACHE_HITS.clear();
+		CACHE_MISSES.clear();
+	}
+
+	/**
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 * @return the metric key
+	 */
+	protected String getKey(final String action, final String pool) {
+		return (action == null ? "unknown" : action) + "|" + (pool == null ? "default" : pool);
+	}
+
+	/**
+	 * Register with the platform MBean server.
+	 * <p>
+	 * The metrics are only registered once. An MBean already registered with the name is kept.
+	 * </p>
+	 */
+	protected void registerMBean() {
+		if (!REGISTERED.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+		} catch (InstanceAlreadyExistsException e) {
+			LOG.info("Polling metrics MBean is already registered.");
+		} catch (JMException e) {
+			LOG.warn("Could not register polling metrics MBean. " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @param histograms the histograms
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 * @return the histogram for the action and pool
+	 */
+	private PollingHistogram getHistogram(final Map<String, PollingHistogram> histograms, final String action, final String pool) {
+		return histograms.computeIfAbsent(getKey(action, pool), k -> new PollingHistogram());
+	}
+
+	/**
+	 * @param counters the counters
+	 * @param action the service action name
+	 * @param pool the thread pool name
+	 * @return the counter for the action and pool
+	 */
+	private LongAdder getCounter(final Map<String, LongAdder> counters, final String action, final String pool) {
+		return counters.computeIfAbsent(getKey(action, pool), k -> new LongAdder());
+	}
+
+	/**
+	 * @param histograms the histograms
+	 * @return the snapshots of the histograms
+	 */
+	private static Map<String, PollingHistogram.Snapshot> getSnapshots(final Map<String, PollingHistogram> histograms) {
+		Map<String, PollingHistogram.Snapshot> snapshots = new TreeMap<>();
+		for (Map.Entry<String, PollingHistogram> entry : histograms.entrySet()) {
+			snapshots.put(entry.getKey(), entry.getValue().getSnapshot());
+		}
+		return snapshots;
+	}
+
+	/**
+	 * @param counters the counters
+	 * @return the current counts
+	 */
+	private static Map<String, Long> getCounts(final Map<String, LongAdder> counters) {
+		Map<String, Long> counts = new TreeMap<>();
+		for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().sum());
+		}
+		return counts;
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.github.bordertech.wcomponents.addons.polling.impl;
+
+import com.github.bordertech.wcomponents.addons.polling.PollingProperties;
+import com.github.bordertech.wcomponents.addons.polling.TaskStatus;
+import com.github.bordertech.wcomponents.addons.polling.TaskStatusRegistry;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default task status registry held in memory on the local node.
+ * <p>
+ * Statuses of finished tasks are purged once they are older than the local task retention period (see
+ * {@link PollingProperties#getLocalTaskRetention()}). Statuses of running tasks are not purged, however long the task runs. They are removed by the
+ * polling panel when it clears its task or when the task is abandoned.
+ * </p>
+ * <p>
+ * The statuses are held statically, so the registry can be serialized with the service actions that hold it.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public class LocalTaskStatusRegistry implements TaskStatusRegistry, Serializable {
+
+	private static final Map<String, StatusEntry> STATUSES = new ConcurrentHashMap<>();
+
+	private static final long PURGE_INTERVAL = 60000;
+
+	private static volatile long lastPurge = System.currentTimeMillis();
+
+	@Override
+	public void setStatus(final String taskId, final TaskStatus status) {
+		STATUSES.put(taskId, new StatusEntry(status));
+		purgeExpired();
+	}
+
+	@Override
+	public TaskStatus getStatus(final String taskId) {
+		StatusEntry entry = STATUSES.get(taskId);
+		return entry == null ? null : entry.status;
+	}
+
+	@Override
+	public void remove(final String taskId) {
+		STATUSES.remove(taskId);
+	}
+
+	@Override
+	public boolean isClustered() {
+		return false;
+	}
+
+	/**
+	 * Purge the expired statuses of finished tasks (at most once a minute).
+	 */
+	private static void purgeExpired() {
+		long now = System.currentTimeMillis();
+		if (now - lastPurge < PURGE_INTERVAL) {
+			return;
+		}
+		lastPurge = now;
+		long cutoff = now - PollingProperties.getLocalTaskRetention();
+		for (Iterator<StatusEntry> iter = STATUSES.values().iterator(); iter.hasNext();) {
+			StatusEntry entry = iter.next();
+			if (entry.status != TaskStatus.RUNNING && entry.updated < cutoff) {
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Status and when it was set.
+	 */
+	private static final class StatusEntry {
+
+		private final TaskStatus status;
+
+		private final long updated = System.currentTimeMillis();
+
+		/**
+		 * @param status the task status
+		 */
+		private StatusEntry(final TaskStatus status) {
+			this.status = status;
+		}
+	}
+
+}
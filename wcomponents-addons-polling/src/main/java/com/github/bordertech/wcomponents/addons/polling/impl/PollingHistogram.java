@@ -0,0 +1,160 @@
+package com.github.bordertech.wcomponents.addons.polling.impl;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram with fixed buckets that can be updated concurrently.
+ *
+ * @since 1.0.6
+ */
+public class PollingHistogram {
+
+	/**
+	 * Bucket upper bounds.
+	 */
+	private static final long[] BOUNDS = {0, 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000, 120000, 300000};
+
+	private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder sum = new LongAdder();
+
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Create an empty histogram.
+	 */
+	public PollingHistogram() {
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @param value the value to record
+	 */
+	public void record(final long value) {
+		int idx = 0;
+		while (idx < BOUNDS.length && value > BOUNDS[idx]) {
+			idx++;
+		}
+		buckets[idx].increment();
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * @return a snapshot of the histogram
+	 */
+	public Snapshot getSnapshot() {
+		long[] counts = new long[buckets.length];
+		long total = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+		long maxValue = max.get();
+		return new Snapshot(total, total == 0 ? 0 : sum.sum() / (double) total, maxValue,
+				percentile(counts, total, 0.5, maxValue), percentile(counts, total, 0.95, maxValue), percentile(counts, total, 0.99, maxValue));
+	}
+
+	/**
+	 * @param counts the bucket counts
+	 * @param total the total count
+	 * @param percentile the percentile required
+	 * @param maxValue the maximum value recorded
+	 * @return the upper bound of the bucket holding the percentile
+	 */
+	private static long percentile(final long[] counts, final long total, final double percentile, final long maxValue) {
+		long target = (long) Math.ceil(total * percentile);
+		long sofar = 0;
+		for (int i = 0; i < counts.length; i++) {
+			sofar += counts[i];
+			if (sofar >= target && sofar > 0) {
+				return i < BOUNDS.length ? Math.min(BOUNDS[i], maxValue) : maxValue;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Snapshot of the histogram values.
+	 */
+	public static class Snapshot {
+
+		private final long count;
+
+		private final double mean;
+
+		private final long max;
+
+		private final long median;
+
+		private final long percentile95;
+
+		private final long percentile99;
+
+		/**
+		 * @param count the number of values recorded
+		 * @param mean the mean value
+		 * @param max the maximum value
+		 * @param median the median value
+		 * @param percentile95 the 95th percentile value
+		 * @param percentile99 the 99th percentile value
+		 */
+		public Snapshot(final long count, final double mean, final long max, final long median, final long percentile95, final long percentile99) {
+			this.count = count;
+			this.mean = mean;
+			this.max = max;
+			this.median = median;
+			this.percentile95 = percentile95;
+			this.percentile99 = percentile99;
+		}
+
+		/**
+		 * @return the number of values recorded
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the mean value
+		 */
+		public double getMean() {
+			return mean;
+		}
+
+		/**
+		 * @return the maximum value
+		 */
+		public long getMax() {
+			return max;
+		}
+
+		/**
+		 * @return the median value (upper bound of its bucket)
+		 */
+		public long getMedian() {
+			return median;
+		}
+
+		/**
+		 * @return the 95th percentile value (upper bound of its bucket)
+		 */
+		public long getPercentile95() {
+			return percentile95;
+		}
+
+		/**
+		 * @return the 99th percentile value (upper bound of its bucket)
+		 */
+		public long getPercentile99() {
+			return percentile99;
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.github.bordertech.wcomponents.addons.polling.impl;
+
+import java.util.Map;
+
+/**
+ * JMX view of the polling metrics.
+ * <p>
+ * The metrics are keyed by the service action and thread pool in the format {@code action|pool}.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public interface PollingMetricsMXBean {
+
+	/**
+	 * @return the polling duration histograms
+	 */
+	Map<String, PollingHistogram.Snapshot> getPollingDurations();
+
+	/**
+	 * @return the histograms of the number of polls that did not find a result
+	 */
+	Map<String, PollingHistogram.Snapshot> getNoResultPolls();
+
+	/**
+	 * @return the number of services rejected (usually no threads available)
+	 */
+	Map<String, Long> getRejectedCounts();
+
+	/**
+	 * @return the number of polling timeouts
+	 */
+	Map<String, Long> getTimeoutCounts();
+
+	/**
+	 * @return the number of results already available when the service was submitted
+	 */
+	Map<String, Long> getCacheHitCounts();
+
+	/**
+	 * @return the number of results not available when the service was submitted
+	 */
+	Map<String, Long> getCacheMissCounts();
+
+	/**
+	 * @return the number of service actions interrupted as they ran past the polling timeout
+	 */
+	Map<String, Long> getDeadlineExceededCounts();
+
+	/**
+	 * Clear all the metrics.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Polling implementations.
+ */
+package com.github.bordertech.wcomponents.addons.polling.impl;
@@ -0,0 +1,207 @@
+package com.github.bordertech.wcomponents.addons.table;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Read only list view of a {@link TableDataSource} that fetches the rows a page at a time.
+ * <p>
+ * Bind this list to a table using a {@link TableBeanModel} and only the pages requested by the table are materialized.
+ * Use a table pagination mode (eg DYNAMIC) so the table only asks for the rows on the visible page. The most recently
+ * used pages and the row count are cached. The cache is transient so only the data source is held in the session
+ * and replicated.
+ * </p>
+ * <p>
+ * Iterating the list (including the bulk operations inherited from {@link AbstractList} such as {@code contains},
+ * {@code indexOf} and {@code toArray}) fetches every page from the data source. Only pass the list to code that reads
+ * the rows it needs by index. For the same reason {@link #equals(Object)} and {@link #hashCode()} use the list identity
+ * rather than comparing the rows.
+ * </p>
+ *
+ * @param <T> the row bean type
+ * @since 1.0.6
+ */
+public class PagedBeanList<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+	/**
+	 * Default number of rows fetched in a page.
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 50;
+
+	/**
+	 * Default number of pages cached.
+	 */
+	public static final int DEFAULT_MAX_PAGES = 5;
+
+	private final TableDataSource<T> dataSource;
+
+	private final int pageSize;
+
+	private final int maxPages;
+
+	private transient Map<Integer, List<T>> pages;
+
+	private transient int count = -1;
+
+	private transient int version;
+
+	/**
+	 * @param dataSource the paged data source
+	 */
+	public PagedBeanList(final TableDataSource<T> dataSource) {
+		this(dataSource, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+	}
+
+	/**
+	 * @param dataSource the paged data source
+	 * @param pageSize the number of rows fetched in a page
+	 * @param maxPages the number of pages to cache
+	 */
+	public PagedBeanList(final TableDataSource<T> dataSource, final int pageSize, final int maxPages) {
+		if (dataSource == null) {
+			throw new IllegalArgumentException("A data source must be provided.");
+		}
+		if (pageSize < 1 || maxPages < 1) {
+			throw new IllegalArgumentException("Page size and max pages must be greater than zero.");
+		}
+		this.dataSource = dataSource;
+		this.pageSize = pageSize;
+		this.maxPages = maxPages;
+	}
+
+	/**
+	 * @return the paged data source
+	 */
+	public TableDataSource<T> getDataSource() {
+		return dataSource;
+	}
+
+	/**
+	 * @return the number of rows fetched in a page
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	@Override
+	public T get(final int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of range for size " + size() + ".");
+		}
+		List<T> page = getPage(index / pageSize);
+		int pageIdx = index % pageSize;
+		// Rows removed from the data source since the count was taken
+		return pageIdx < page.size() ? page.get(pageIdx) : null;
+	}
+
+	@Override
+	public int size() {
+		if (count < 0) {
+			count = dataSource.getCount();
+		}
+		return count;
+	}
+
+	/**
+	 * @param columnId the column id
+	 * @return true if the data source can sort by this column
+	 */
+	public boolean isSortable(final String columnId) {
+		return dataSource instanceof SortableTableDataSource && ((SortableTableDataSource) dataSource).isSortable(columnId);
+	}
+
+	/**
+	 * Sort the rows in the data source and clear the cached pages.
+	 *
+	 * @param columnId the column id to sort by
+	 * @param ascending true if sort ascending
+	 */
+	public void sort(final String columnId, final boolean ascending) {
+		if (!isSortable(columnId)) {
+			throw new IllegalStateException("Data source cannot sort by column [" + columnId + "].");
+		}
+		((SortableTableDataSource) dataSource).setSort(columnId, ascending);
+		refresh();
+	}
+
+	/**
+	 * The list identity is used, so comparing lists does not fetch every page from the data source.
+	 *
+	 * @param obj the object to compare
+	 * @return true if the same list
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		return this == obj;
+	}
+
+	/**
+	 * @return the identity hash code of the list
+	 */
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
+	}
+
+	/**
+	 * The version changes each time the list is refreshed, so cached values worked out from the rows can be discarded.
+	 *
+	 * @return the version of the rows
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Clear the cached pages and row count so they are fetched again from the data source.
+	 */
+	public void refresh() {
+		pages = null;
+		count = -1;
+		version++;
+	}
+
+	/**
+	 * Reset the row count after deserialization, as a transient field is restored as zero.
+	 *
+	 * @param in the input stream
+	 * @throws IOException an IO exception
+	 * @throws ClassNotFoundException a class not found exception
+	 */
+	private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		refresh();
+	}
+
+	/**
+	 * @param pageNo the page number
+	 * @return the rows for the page
+	 */
+	private List<T> getPage(final int pageNo) {
+		if (pages == null) {
+			pages = new LinkedHashMap<Integer, List<T>>(maxPages * 2, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<Integer, List<T>> eldest) {
+					return size() > maxPages;
+				}
+			};
+		}
+		List<T> page = pages.get(pageNo);
+		if (page == null) {
+			page = dataSource.fetch(pageNo * pageSize, pageSize);
+			if (page == null) {
+				page = Collections.emptyList();
+			}
+			pages.put(pageNo, page);
+		}
+		return page;
+	}
+
+}
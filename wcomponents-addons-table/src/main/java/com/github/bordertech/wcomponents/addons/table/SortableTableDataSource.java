@@ -0,0 +1,25 @@
+package com.github.bordertech.wcomponents.addons.table;
+
+/**
+ * Paged data source that sorts the rows itself (eg via an ORDER BY).
+ *
+ * @param <T> the row bean type
+ * @since 1.0.6
+ */
+public interface SortableTableDataSource<T> extends TableDataSource<T> {
+
+	/**
+	 * @param columnId the column id
+	 * @return true if the data source can sort by this column
+	 */
+	boolean isSortable(String columnId);
+
+	/**
+	 * Set the sort order used by subsequent fetches.
+	 *
+	 * @param columnId the column id to sort by
+	 * @param ascending true if sort ascending
+	 */
+	void setSort(String columnId, boolean ascending);
+
+}
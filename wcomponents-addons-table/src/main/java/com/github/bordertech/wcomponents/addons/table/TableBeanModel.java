@@ -5,12 +5,26 @@ import com.github.bordertech.wcomponents.WTable;
 import com.github.bordertech.wcomponents.WTableColumn;
 import com.github.bordertech.wcomponents.addons.table.edit.RowActionable;
 import com.github.bordertech.wcomponents.addons.table.edit.RowMode;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Bean bound table model with column definitions.
+ * <p>
+ * The model can be shared by the tables of different users. The sort indexes and column values can be cached (see
+ * {@link #setUseSortCache(boolean)} and {@link #setUseValueCache(boolean)}). They are held per bean list, so each
+ * user's rows are cached separately.
+ * </p>
  *
  * @param <T> the bean class used by this model
  * @param <U> the table column definition
@@ -23,21 +37,49 @@ public class TableBeanModel<T, U extends TableColumn<?, T>> extends AbstractBean
 	 */
 	private boolean selectable;
 
+	/**
+	 * The number of rows at which a sort runs in parallel, or zero to never sort in parallel.
+	 */
+	private int parallelSortThreshold;
+
+	/**
+	 * Indicates whether the column values are cached.
+	 */
+	private boolean useValueCache;
+
+	/**
+	 * Indicates whether the sort indexes are cached.
+	 */
+	private boolean useSortCache;
+
 	/**
 	 * Columns for the table.
 	 */
 	private final List<U> columns;
 
+	/**
+	 * Column lookup by column id.
+	 */
+	private final TableColumnRegistry<T, U> columnRegistry;
+
 	/**
 	 * The column used for row actions.
 	 */
 	private final RowActionable actionColumn;
 
 	/**
+	 * Cached sort indexes and column values by bean list.
+	 */
+	private transient volatile BeanListCacheMap listCaches;
+
+	/**
+	 * The columns are copied, so changes to the list after the model is created are not used.
+	 *
 	 * @param columns the columns for this table
 	 */
 	public TableBeanModel(final List<U> columns) {
-		this.columns = columns;
+		this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+		this.columnRegistry = new TableColumnRegistry<>(this.columns);
 		RowActionable actionCol = null;
 		for (U column : columns) {
 			if (column.getRenderer() instanceof RowActionable) {
@@ -59,10 +101,8 @@ public class TableBeanModel<T, U extends TableColumn<?, T>> extends AbstractBean
 	public Object getValueAt(final List<Integer> row, final int col) {
 		// Get the bean for the row
 		T bean = getRowBean(row);
-		// Get the column
-		TableColumn<?, T> column = getColumns().get(col);
 		// Return the value for the column
-		return column.getValue(bean);
+		return getColumnValue(bean, col);
 	}
 
 	@Override
@@ -71,8 +111,15 @@ public class TableBeanModel<T, U extends TableColumn<?, T>> extends AbstractBean
 		T bean = getRowBean(row);
 		// Get the column
 		TableColumn column = getColumns().get(col);
+		// Key before the update in case the key is worked out from the value (the default key is the bean itself)
+		Object key = useValueCache ? getBeanKey(bean) : null;
 		// Update the value
 		column.setValue(bean, value);
+		// Cached values and sort order may have changed
+		if (key != null) {
+			removeCachedValues(key);
+		}
+		clearSortCache();
 	}
 
 	@Override
@@ -94,6 +141,10 @@ public class TableBeanModel<T, U extends TableColumn<?, T>> extends AbstractBean
 	@Override
 	public boolean isSortable(final int col) {
 		TableColumn column = getColumn(col);
+		List<T> beans = getBeanList();
+		if (beans instanceof PagedBeanList) {
+			return ((PagedBeanList) beans).isSortable(column.getColumnId());
+		}
 		return column.getComparator() != null;
 	}
 
@@ -106,11 +157,206 @@ public class TableBeanModel<T, U extends TableColumn<?, T>> extends AbstractBean
 	@Override
 	public int[] sort(final int col, final boolean ascending) {
 		TableColumn column = getColumn(col);
+		// Paged beans are sorted by the data source
+		List<T> beans = getBeanList();
+		if (beans instanceof PagedBeanList) {
+			((PagedBeanList) beans).sort(column.getColumnId(), ascending);
+			return null;
+		}
 		Comparator<Object> comp = (Comparator<Object>) column.getComparator();
 		if (comp == null) {
 			return null;
 		}
-		return sort(comp, col, ascending);
+		int[] index = getAscendingIndex(comp, col);
+		if (index == null) {
+			return null;
+		}
+		if (ascending) {
+			return index.clone();
+		}
+		// Descending is the reverse of the ascending index
+		int[] desc = new int[index.length];
+		for (int i = 0; i < index.length; i++) {
+			desc[i] = index[index.length - 1 - i];
+		}
+		return desc;
+	}
+
+	/**
+	 * Clear the cached sort indexes for the current bean list.
+	 * <p>
+	 * The cache is cleared automatically when the version of the bean list changes (see
+	 * {@link #getBeanListVersion(List)}) or a value is set via the model. Call this method if the beans are updated in
+	 * place by other means.
+	 * </p>
+	 */
+	public void clearSortCache() {
+		BeanListCaches caches = findListCaches(getBeanList());
+		if (caches != null) {
+			caches.clearIndexes();
+		}
+	}
+
+	/**
+	 * Provide the version of the bean list, used to discard the cached sort indexes and column values when the rows
+	 * change.
+	 * <p>
+	 * Defaults to the version of a {@link PagedBeanList}, otherwise the size of the list. Override to return a
+	 * modification count if the beans are replaced or updated in place without changing the size of the list.
+	 * </p>
+	 *
+	 * @param beans the bean list
+	 * @return the version of the bean list
+	 */
+	protected long getBeanListVersion(final List<T> beans) {
+		if (beans instanceof PagedBeanList) {
+			return ((PagedBeanList) beans).getVersion();
+		}
+		return beans.size();
+	}
+
+	/**
+	 * Provide the row indexes in ascending order for the column.
+	 * <p>
+	 * If the sort cache is used, the index is cached per bean list and column, and reused until the version of the bean
+	 * list changes. Otherwise the rows are sorted on each call.
+	 * </p>
+	 *
+	 * @param comp the column comparator
+	 * @param col the column index
+	 * @return the row indexes in ascending order
+	 */
+	protected int[] getAscendingIndex(final Comparator<Object> comp, final int col) {
+		List<T> beans = getBeanList();
+		if (!useSortCache) {
+			return sortIndex(beans, comp, col);
+		}
+		long version = getBeanListVersion(beans);
+		BeanListCaches caches = getListCaches(beans, version);
+		int[] index = caches.getIndex(col, version);
+		if (index != null) {
+			return index;
+		}
+		// Sort outside the lock
+		index = sortIndex(beans, comp, col);
+		if (index != null) {
+			caches.putIndex(col, index, version);
+		}
+		return index;
+	}
+
+	/**
+	 * Sort the row indexes in ascending order for the column.
+	 * <p>
+	 * The column values are extracted once and then sorted. If the number of rows is at or above the parallel sort
+	 * threshold, the sort runs in parallel.
+	 * </p>
+	 *
+	 * @param beans the bean list
+	 * @param comp the column comparator
+	 * @param col the column index
+	 * @return the row indexes in ascending order
+	 */
+	protected int[] sortIndex(final List<T> beans, final Comparator<Object> comp, final int col) {
+		int size = beans.size();
+		Object[] keys = new Object[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = getColumnValue(beans, beans.get(i), col);
+		}
+		boolean parallel = parallelSortThreshold > 0 && size >= parallelSortThreshold;
+		return TableSortUtil.sortIndex(keys, comp, parallel);
+	}
+
+	/**
+	 * Provide the column value for a bean.
+	 * <p>
+	 * If the value cache is used, the value is extracted once per row key and column index and then shared by the paint
+	 * and sort.
+	 * </p>
+	 *
+	 * @param bean the row bean
+	 * @param col the column index
+	 * @return the column value for the bean
+	 */
+	public Object getColumnValue(final T bean, final int col) {
+		return getColumnValue(useValueCache ? getBeanList() : null, bean, col);
+	}
+
+	/**
+	 * @return true if the column values are cached
+	 */
+	public boolean isUseValueCache() {
+		return useValueCache;
+	}
+
+	/**
+	 * Set whether the column values are cached by row key and column index.
+	 * <p>
+	 * Use this for columns with values that are expensive to work out. The row key (see {@link #getBeanKey(Object)})
+	 * must be stable while the bean list is bound. The default key is the bean itself, so override
+	 * {@link #getBeanKey(Object)} to return an identifier if the bean equality changes with its values. The values are
+	 * only held while the bean list is in use. The values are cached per bean list and cleared when the version of
+	 * the list changes (see {@link #getBeanListVersion(List)}), and the row is removed when a value is set via the
+	 * model. Call {@link #clearValueCache()} if the beans are updated in place by other means.
+	 * </p>
+	 *
+	 * @param useValueCache true if cache the column values
+	 */
+	public void setUseValueCache(final boolean useValueCache) {
+		this.useValueCache = useValueCache;
+		// Discard the caches for all the bean lists
+		listCaches = null;
+	}
+
+	/**
+	 * @return true if the sort indexes are cached
+	 */
+	public boolean isUseSortCache() {
+		return useSortCache;
+	}
+
+	/**
+	 * Set whether the sort indexes are cached by column index.
+	 * <p>
+	 * Use this for large bean lists that are sorted often. The indexes are cached per bean list and cleared when the
+	 * version of the list changes (see {@link #getBeanListVersion(List)}) or a value is set via the model. The default
+	 * version is the size of the list, so override {@link #getBeanListVersion(List)} to return a modification count,
+	 * or call {@link #clearSortCache()}, if the beans are replaced, reordered or updated in place by other means.
+	 * </p>
+	 *
+	 * @param useSortCache true if cache the sort indexes
+	 */
+	public void setUseSortCache(final boolean useSortCache) {
+		this.useSortCache = useSortCache;
+		// Discard the caches for all the bean lists
+		listCaches = null;
+	}
+
+	/**
+	 * Clear the cached column values for the current bean list.
+	 */
+	public void clearValueCache() {
+		BeanListCaches caches = findListCaches(getBeanList());
+		if (caches != null) {
+			caches.clearValues();
+		}
+	}
+
+	/**
+	 * @return the number of rows at which a sort runs in parallel, or zero to never sort in parallel
+	 */
+	public int getParallelSortThreshold() {
+		return parallelSortThreshold;
+	}
+
+	/**
+	 * Set the number of rows at which a column sort runs in parallel on the common fork/join pool.
+	 *
+	 * @param parallelSortThreshold the number of rows at which a sort runs in parallel, or zero to never sort in
+	 * parallel
+	 */
+	public void setParallelSortThreshold(final int parallelSortThreshold) {
+		this.parallelSortThreshold = parallelSortThreshold;
 	}
 
 	/**
@@ -124,6 +370,9 @@ public class TableBeanModel<T, U extends TableColumn<?, T>> extends AbstractBean
 	}
 
 	/**
+	 * The columns are fixed when the model is created and are the same columns held by the column registry (see
+	 * {@link #getColumnRegistry()}), which is used to look up a column by its id.
+	 *
 	 * @return the columns for this table.
 	 */
 	public List<U> getColumns() {
@@ -143,16 +392,32 @@ public class TableBeanModel<T, U extends TableColumn<?, T>> extends AbstractBean
 	 * @return the index of this column id, or -1 if not found
 	 */
 	public int getColumnIdx(final String columnId) {
-		List<U> cols = getColumns();
-		for (int i = 0; i < cols.size(); i++) {
-			if (cols.get(i).getColumnId().equals(columnId)) {
-				return i;
-			}
-		}
-		return -1;
+		return columnRegistry.getIndex(columnId);
+	}
+
+	/**
+	 * Use {@link #getColumnValue(Object, int)} with the handle index to get the column value, so the value cache is used.
+	 *
+	 * @param columnId the column id
+	 * @return the column handle for this column id, or null if not found
+	 */
+	public TableColumnHandle<T, U> getColumnHandle(final String columnId) {
+		return columnRegistry.getHandle(columnId);
 	}
 
 	/**
+	 * The registry is built from the columns when the model is created.
+	 *
+	 * @return the column registry
+	 */
+	public final TableColumnRegistry<T, U> getColumnRegistry() {
+		return columnRegistry;
+	}
+
+	/**
+	 * The bean list can be a {@link PagedBeanList} so the rows are fetched a page at a time from a
+	 * {@link TableDataSource}.
+	 *
 	 * @return the list of beans for the table
 	 */
 	public List<T> getBeanList() {
@@ -161,6 +426,8 @@ public class TableBeanModel<T, U extends TableColumn<?, T>> extends AbstractBean
 	}
 
 	/**
+	 * If the bean list is a {@link PagedBeanList}, the bean is resolved from its page cache.
+	 *
 	 * @param row the row index
 	 * @return the bean for the row
 	 */
@@ -210,4 +477,297 @@ public class TableBeanModel<T, U extends TableColumn<?, T>> extends AbstractBean
 		return actionColumn == null || actionColumn.getRowMode(key) != RowMode.READ;
 	}
 
+	/**
+	 * @param beans the bean list or null if the value cache is not used
+	 * @param bean the row bean
+	 * @param col the column index
+	 * @return the column value for the bean
+	 */
+	private Object getColumnValue(final List<T> beans, final T bean, final int col) {
+		TableColumn<?, T> column = getColumn(col);
+		if (!useValueCache || beans == null) {
+			return column.getValue(bean);
+		}
+		long version = getBeanListVersion(beans);
+		BeanListCaches caches = getListCaches(beans, version);
+		CellKey key = new CellKey(getBeanKey(bean), col);
+		Object value = caches.getValue(key, version);
+		if (value != null) {
+			return value == BeanListCaches.NULL_VALUE ? null : value;
+		}
+		value = column.getValue(bean);
+		caches.putValue(key, value, version);
+		return value;
+	}
+
+	/**
+	 * @param rowKey the row key to remove the cached values for
+	 */
+	private void removeCachedValues(final Object rowKey) {
+		BeanListCaches caches = findListCaches(getBeanList());
+		if (caches != null) {
+			caches.removeRow(rowKey);
+		}
+	}
+
+	/**
+	 * @param beans the bean list
+	 * @param version the version of the bean list
+	 * @return the caches for the bean list
+	 */
+	private BeanListCaches getListCaches(final List<T> beans, final long version) {
+		BeanListCacheMap map = listCaches;
+		if (map == null) {
+			synchronized (this) {
+				if (listCaches == null) {
+					listCaches = new BeanListCacheMap();
+				}
+				map = listCaches;
+			}
+		}
+		return map.get(beans, version);
+	}
+
+	/**
+	 * @param beans the bean list
+	 * @return the caches for the bean list or null if none
+	 */
+	private BeanListCaches findListCaches(final List<T> beans) {
+		BeanListCacheMap map = listCaches;
+		return map == null ? null : map.find(beans);
+	}
+
+	/**
+	 * Cached sort indexes and column values by bean list.
+	 * <p>
+	 * The bean lists are weakly held and compared by identity, so the caches are discarded once a list is no longer used.
+	 * </p>
+	 */
+	private static final class BeanListCacheMap {
+
+		private final Map<BeanListKey, BeanListCaches> caches = new ConcurrentHashMap<>();
+
+		private final ReferenceQueue<List<?>> queue = new ReferenceQueue<>();
+
+		/**
+		 * @param beans the bean list
+		 * @return the caches for the bean list or null if none
+		 */
+		private BeanListCaches find(final List<?> beans) {
+			expunge();
+			return caches.get(new BeanListKey(beans, null));
+		}
+
+		/**
+		 * @param beans the bean list
+		 * @param version the version of the bean list
+		 * @return the caches for the bean list
+		 */
+		private BeanListCaches get(final List<?> beans, final long version) {
+			BeanListCaches listCaches = find(beans);
+			if (listCaches == null) {
+				BeanListCaches created = new BeanListCaches(version);
+				listCaches = caches.putIfAbsent(new BeanListKey(beans, queue), created);
+				if (listCaches == null) {
+					listCaches = created;
+				}
+			}
+			return listCaches;
+		}
+
+		/**
+		 * Remove the caches for the bean lists that have been garbage collected.
+		 */
+		private void expunge() {
+			for (Reference<?> ref = queue.poll(); ref != null; ref = queue.poll()) {
+				caches.remove(ref);
+			}
+		}
+	}
+
+	/**
+	 * Weak reference to a bean list compared by identity.
+	 */
+	private static final class BeanListKey extends WeakReference<List<?>> {
+
+		private final int hash;
+
+		/**
+		 * @param beans the bean list
+		 * @param queue the queue to register with, or null if only used for a lookup
+		 */
+		private BeanListKey(final List<?> beans, final ReferenceQueue<List<?>> queue) {
+			super(beans, queue);
+			this.hash = System.identityHashCode(beans);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof BeanListKey)) {
+				return false;
+			}
+			List<?> beans = get();
+			return beans != null && beans == ((BeanListKey) obj).get();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * Sorted row indexes and column values for a bean list.
+	 * <p>
+	 * The caches are discarded when the version of the bean list changes.
+	 * </p>
+	 */
+	private static final class BeanListCaches {
+
+		/**
+		 * Marker for a cached null value.
+		 */
+		private static final Object NULL_VALUE = new Object();
+
+		private long version;
+
+		private final Map<Integer, int[]> indexes = new HashMap<>();
+
+		private final Map<CellKey, Object> values = new HashMap<>();
+
+		/**
+		 * @param version the version of the bean list
+		 */
+		private BeanListCaches(final long version) {
+			this.version = version;
+		}
+
+		/**
+		 * @param col the column index
+		 * @param version the version of the bean list
+		 * @return the ascending row indexes or null if not cached
+		 */
+		private synchronized int[] getIndex(final int col, final long version) {
+			checkVersion(version);
+			return indexes.get(col);
+		}
+
+		/**
+		 * @param col the column index
+		 * @param index the ascending row indexes
+		 * @param version the version of the bean list the index was sorted from
+		 */
+		private synchronized void putIndex(final int col, final int[] index, final long version) {
+			if (this.version == version) {
+				indexes.put(col, index);
+			}
+		}
+
+		/**
+		 * Clear the sort indexes.
+		 */
+		private synchronized void clearIndexes() {
+			indexes.clear();
+		}
+
+		/**
+		 * @param key the cell key
+		 * @param version the version of the bean list
+		 * @return the cached value, {@link #NULL_VALUE} for a cached null or null if not cached
+		 */
+		private synchronized Object getValue(final CellKey key, final long version) {
+			checkVersion(version);
+			return values.get(key);
+		}
+
+		/**
+		 * @param key the cell key
+		 * @param value the column value
+		 * @param version the version of the bean list the value was worked out from
+		 */
+		private synchronized void putValue(final CellKey key, final Object value, final long version) {
+			if (this.version == version) {
+				values.put(key, value == null ? NULL_VALUE : value);
+			}
+		}
+
+		/**
+		 * Remove the values for a row.
+		 * <p>
+		 * The values are scanned rather than looked up, as the hash code of the row key may have changed with the update
+		 * when the bean is the key.
+		 * </p>
+		 *
+		 * @param rowKey the row key
+		 */
+		private synchronized void removeRow(final Object rowKey) {
+			for (Iterator<CellKey> iter = values.keySet().iterator(); iter.hasNext();) {
+				Object key = iter.next().rowKey;
+				if (key == rowKey || Objects.equals(key, rowKey)) {
+					iter.remove();
+				}
+			}
+		}
+
+		/**
+		 * Clear the column values.
+		 */
+		private synchronized void clearValues() {
+			values.clear();
+		}
+
+		/**
+		 * @param version the current version of the bean list
+		 */
+		private void checkVersion(final long version) {
+			if (this.version != version) {
+				indexes.clear();
+				values.clear();
+				this.version = version;
+			}
+		}
+	}
+
+	/**
+	 * Row key and column index of a cell.
+	 * <p>
+	 * The column index is used as column ids are not required to be unique.
+	 * </p>
+	 */
+	private static final class CellKey {
+
+		private final Object rowKey;
+
+		private final int col;
+
+		/**
+		 * @param rowKey the row key
+		 * @param col the column index
+		 */
+		private CellKey(final Object rowKey, final int col) {
+			this.rowKey = rowKey;
+			this.col = col;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CellKey)) {
+				return false;
+			}
+			CellKey other = (CellKey) obj;
+			return col == other.col && Objects.equals(rowKey, other.rowKey);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(rowKey, col);
+		}
+	}
+
 }
@@ -0,0 +1,68 @@
+package com.github.bordertech.wcomponents.addons.table;
+
+import com.github.bordertech.wcomponents.WComponent;
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * Resolved column in a {@link TableColumnRegistry} with its position in the table.
+ * <p>
+ * Column values are provided by the table model (see {@link TableBeanModel#getColumnValue(Object, int)}) so the value
+ * cache is used.
+ * </p>
+ *
+ * @param <T> the row bean type
+ * @param <U> the table column definition
+ * @since 1.0.6
+ */
+public final class TableColumnHandle<T, U extends TableColumn<?, T>> implements Serializable {
+
+	private final int index;
+
+	private final U column;
+
+	/**
+	 * @param index the column index
+	 * @param column the column definition
+	 */
+	TableColumnHandle(final int index, final U column) {
+		this.index = index;
+		this.column = column;
+	}
+
+	/**
+	 * @return the column index
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return the column id
+	 */
+	public String getColumnId() {
+		return column.getColumnId();
+	}
+
+	/**
+	 * @return the column definition
+	 */
+	public U getColumn() {
+		return column;
+	}
+
+	/**
+	 * @return the column comparator or null if the column is not sortable
+	 */
+	public Comparator<?> getComparator() {
+		return column.getComparator();
+	}
+
+	/**
+	 * @return the column renderer
+	 */
+	public WComponent getRenderer() {
+		return column.getRenderer();
+	}
+
+}
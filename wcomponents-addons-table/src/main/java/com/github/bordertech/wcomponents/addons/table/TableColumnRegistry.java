@@ -0,0 +1,83 @@
+package com.github.bordertech.wcomponents.addons.table;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable lookup of the table columns by column id.
+ * <p>
+ * The registry is built once from the column definitions so resolving a column id to its index, column definition,
+ * comparator or renderer is constant time. If more than one column has the same id, the first column is used.
+ * </p>
+ *
+ * @param <T> the row bean type
+ * @param <U> the table column definition
+ * @since 1.0.6
+ */
+public final class TableColumnRegistry<T, U extends TableColumn<?, T>> implements Serializable {
+
+	private final List<TableColumnHandle<T, U>> handles;
+
+	private final Map<String, TableColumnHandle<T, U>> handlesById;
+
+	/**
+	 * @param columns the columns for the table
+	 */
+	public TableColumnRegistry(final List<U> columns) {
+		List<TableColumnHandle<T, U>> list = new ArrayList<>(columns.size());
+		Map<String, TableColumnHandle<T, U>> map = new HashMap<>();
+		for (U column : columns) {
+			TableColumnHandle<T, U> handle = new TableColumnHandle<>(list.size(), column);
+			list.add(handle);
+			if (!map.containsKey(column.getColumnId())) {
+				map.put(column.getColumnId(), handle);
+			}
+		}
+		this.handles = Collections.unmodifiableList(list);
+		this.handlesById = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * @param columnId the column id
+	 * @return the index of this column id, or -1 if not found
+	 */
+	public int getIndex(final String columnId) {
+		TableColumnHandle<T, U> handle = handlesById.get(columnId);
+		return handle == null ? -1 : handle.getIndex();
+	}
+
+	/**
+	 * @param columnId the column id
+	 * @return the column handle, or null if not found
+	 */
+	public TableColumnHandle<T, U> getHandle(final String columnId) {
+		return handlesById.get(columnId);
+	}
+
+	/**
+	 * @param col the column index
+	 * @return the column handle
+	 */
+	public TableColumnHandle<T, U> getHandle(final int col) {
+		return handles.get(col);
+	}
+
+	/**
+	 * @return the column handles in column order
+	 */
+	public List<TableColumnHandle<T, U>> getHandles() {
+		return handles;
+	}
+
+	/**
+	 * @return the number of columns
+	 */
+	public int size() {
+		return handles.size();
+	}
+
+}
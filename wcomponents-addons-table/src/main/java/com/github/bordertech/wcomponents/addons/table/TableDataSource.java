@@ -0,0 +1,31 @@
+package com.github.bordertech.wcomponents.addons.table;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Paged source of the row beans for a table.
+ * <p>
+ * Wrap a data source in a {@link PagedBeanList} and bind it to the table so only the pages being displayed are fetched.
+ * The data source is held in the user session so it should only hold the details needed to fetch the rows (eg the
+ * search criteria) and not the rows themselves.
+ * </p>
+ *
+ * @param <T> the row bean type
+ * @since 1.0.6
+ */
+public interface TableDataSource<T> extends Serializable {
+
+	/**
+	 * @return the total number of rows
+	 */
+	int getCount();
+
+	/**
+	 * @param offset the index of the first row to fetch
+	 * @param limit the maximum number of rows to fetch
+	 * @return the rows from the offset, in the current sort order
+	 */
+	List<T> fetch(int offset, int limit);
+
+}
@@ -0,0 +1,176 @@
+package com.github.bordertech.wcomponents.addons.table;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts table row indexes by precomputed sort keys.
+ * <p>
+ * The sort is a stable merge sort over an int index array so the keys are only extracted once and the row indexes are
+ * not boxed. Large tables can be sorted in parallel using the common fork/join pool.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public final class TableSortUtil {
+
+	/**
+	 * Ranges smaller than this are insertion sorted.
+	 */
+	private static final int INSERTION_SORT_SIZE = 16;
+
+	/**
+	 * Minimum range size that is split into parallel tasks.
+	 */
+	private static final int MIN_PARALLEL_SIZE = 8192;
+
+	/**
+	 * Prevent instantiation.
+	 */
+	private TableSortUtil() {
+		//No-impl
+	}
+
+	/**
+	 * @param keys the sort key for each row
+	 * @param comp the key comparator
+	 * @param parallel true if sort in parallel
+	 * @return the row indexes in ascending key order
+	 */
+	public static int[] sortIndex(final Object[] keys, final Comparator<Object> comp, final boolean parallel) {
+		int size = keys.length;
+		int[] index = new int[size];
+		for (int i = 0; i < size; i++) {
+			index[i] = i;
+		}
+		int[] buffer = new int[size];
+		if (parallel) {
+			int granularity = Math.max(MIN_PARALLEL_SIZE, size / (ForkJoinPool.getCommonPoolParallelism() * 4));
+			ForkJoinPool.commonPool().invoke(new MergeSortTask(index, buffer, 0, size, keys, comp, granularity));
+		} else {
+			mergeSort(index, buffer, 0, size, keys, comp);
+		}
+		return index;
+	}
+
+	/**
+	 * Merge sort a range of the index.
+	 *
+	 * @param index the row indexes
+	 * @param buffer the work buffer
+	 * @param low the start of the range (inclusive)
+	 * @param high the end of the range (exclusive)
+	 * @param keys the sort keys
+	 * @param comp the key comparator
+	 */
+	private static void mergeSort(final int[] index, final int[] buffer, final int low, final int high, final Object[] keys,
+			final Comparator<Object> comp) {
+		if (high - low <= INSERTION_SORT_SIZE) {
+			insertionSort(index, low, high, keys, comp);
+			return;
+		}
+		int mid = (low + high) >>> 1;
+		mergeSort(index, buffer, low, mid, keys, comp);
+		mergeSort(index, buffer, mid, high, keys, comp);
+		merge(index, buffer, low, mid, high, keys, comp);
+	}
+
+	/**
+	 * Stable insertion sort of a range of the index.
+	 *
+	 * @param index the row indexes
+	 * @param low the start of the range (inclusive)
+	 * @param high the end of the range (exclusive)
+	 * @param keys the sort keys
+	 * @param comp the key comparator
+	 */
+	private static void insertionSort(final int[] index, final int low, final int high, final Object[] keys,
+			final Comparator<Object> comp) {
+		for (int i = low + 1; i < high; i++) {
+			int row = index[i];
+			int j = i - 1;
+			while (j >= low && comp.compare(keys[index[j]], keys[row]) > 0) {
+				index[j + 1] = index[j];
+				j--;
+			}
+			index[j + 1] = row;
+		}
+	}
+
+	/**
+	 * Merge two sorted adjacent ranges of the index.
+	 *
+	 * @param index the row indexes
+	 * @param buffer the work buffer
+	 * @param low the start of the first range (inclusive)
+	 * @param mid the end of the first range and start of the second range
+	 * @param high the end of the second range (exclusive)
+	 * @param keys the sort keys
+	 * @param comp the key comparator
+	 */
+	private static void merge(final int[] index, final int[] buffer, final int low, final int mid, final int high,
+			final Object[] keys, final Comparator<Object> comp) {
+		// Already in order
+		if (comp.compare(keys[index[mid - 1]], keys[index[mid]]) <= 0) {
+			return;
+		}
+		System.arraycopy(index, low, buffer, low, high - low);
+		int left = low;
+		int right = mid;
+		for (int i = low; i < high; i++) {
+			if (right >= high || (left < mid && comp.compare(keys[buffer[left]], keys[buffer[right]]) <= 0)) {
+				index[i] = buffer[left++];
+			} else {
+				index[i] = buffer[right++];
+			}
+		}
+	}
+
+	/**
+	 * Fork/join merge sort of a range of the index.
+	 */
+	private static final class MergeSortTask extends RecursiveAction {
+
+		private final int[] index;
+		private final int[] buffer;
+		private final int low;
+		private final int high;
+		private final Object[] keys;
+		private final Comparator<Object> comp;
+		private final int granularity;
+
+		/**
+		 * @param index the row indexes
+		 * @param buffer the work buffer
+		 * @param low the start of the range (inclusive)
+		 * @param high the end of the range (exclusive)
+		 * @param keys the sort keys
+		 * @param comp the key comparator
+		 * @param granularity the range size sorted without splitting
+		 */
+		private MergeSortTask(final int[] index, final int[] buffer, final int low, final int high, final Object[] keys,
+				final Comparator<Object> comp, final int granularity) {
+			this.index = index;
+			this.buffer = buffer;
+			this.low = low;
+			this.high = high;
+			this.keys = keys;
+			this.comp = comp;
+			this.granularity = granularity;
+		}
+
+		@Override
+		protected void compute() {
+			if (high - low <= granularity) {
+				mergeSort(index, buffer, low, high, keys, comp);
+				return;
+			}
+			int mid = (low + high) >>> 1;
+			invokeAll(new MergeSortTask(index, buffer, low, mid, keys, comp, granularity),
+					new MergeSortTask(index, buffer, mid, high, keys, comp, granularity));
+			merge(index, buffer, low, mid, high, keys, comp);
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.github.bordertech.wcomponents.addons.table;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TableSortUtil}.
+ * <p>
+ * The index sort is checked against the stable {@link Arrays#sort(Object[], Comparator)} of a boxed index.
+ * </p>
+ *
+ * @since 1.0.6
+ */
+public class TableSortUtil_Test {
+
+	/**
+	 * Sizes around the insertion sort size and the parallel split size.
+	 */
+	private static final int[] SIZES = {0, 1, 2, 15, 16, 17, 31, 32, 33, 8191, 8192, 8193, 16385, 50000};
+
+	/**
+	 * Nulls first, otherwise natural order.
+	 */
+	private static final Comparator<Object> COMPARATOR = new Comparator<Object>() {
+		@Override
+		public int compare(final Object o1, final Object o2) {
+			if (o1 == null) {
+				return o2 == null ? 0 : -1;
+			}
+			if (o2 == null) {
+				return 1;
+			}
+			return ((Integer) o1).compareTo((Integer) o2);
+		}
+	};
+
+	@Test
+	public void testSortIndexSerialDistinctKeys() {
+		for (int size : SIZES) {
+			assertSortIndex("distinct size " + size, createKeys(size, Integer.MAX_VALUE, false), false);
+		}
+	}
+
+	@Test
+	public void testSortIndexParallelDistinctKeys() {
+		for (int size : SIZES) {
+			assertSortIndex("distinct size " + size, createKeys(size, Integer.MAX_VALUE, false), true);
+		}
+	}
+
+	@Test
+	public void testSortIndexSerialTies() {
+		for (int size : SIZES) {
+			assertSortIndex("ties size " + size, createKeys(size, 5, false), false);
+		}
+	}
+
+	@Test
+	public void testSortIndexParallelTies() {
+		for (int size : SIZES) {
+			assertSortIndex("ties size " + size, createKeys(size, 5, false), true);
+		}
+	}
+
+	@Test
+	public void testSortIndexSerialNulls() {
+		for (int size : SIZES) {
+			assertSortIndex("nulls size " + size, createKeys(size, 20, true), false);
+		}
+	}
+
+	@Test
+	public void testSortIndexParallelNulls() {
+		for (int size : SIZES) {
+			assertSortIndex("nulls size " + size, createKeys(size, 20, true), true);
+		}
+	}
+
+	@Test
+	public void testSortIndexAllEqual() {
+		for (int size : SIZES) {
+			Object[] keys = new Object[size];
+			Arrays.fill(keys, 1);
+			assertSortIndex("equal serial size " + size, keys, false);
+			assertSortIndex("equal parallel size " + size, keys, true);
+		}
+	}
+
+	@Test
+	public void testSortIndexDescendingKeys() {
+		for (int size : SIZES) {
+			Object[] keys = new Object[size];
+			for (int i = 0; i < size; i++) {
+				keys[i] = size - i;
+			}
+			assertSortIndex("descending serial size " + size, keys, false);
+			assertSortIndex("descending parallel size " + size, keys, true);
+		}
+	}
+
+	/**
+	 * @param message the assert message
+	 * @param keys the sort keys
+	 * @param parallel true if sort in parallel
+	 */
+	private static void assertSortIndex(final String message, final Object[] keys, final boolean parallel) {
+		Integer[] expected = new Integer[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			expected[i] = i;
+		}
+		Arrays.sort(expected, new Comparator<Integer>() {
+			@Override
+			public int compare(final Integer row1, final Integer row2) {
+				return COMPARATOR.compare(keys[row1], keys[row2]);
+			}
+		});
+		int[] actual = TableSortUtil.sortIndex(keys, COMPARATOR, parallel);
+		Assert.assertEquals(message + " length", expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals(message + " position " + i, expected[i].intValue(), actual[i]);
+		}
+	}
+
+	/**
+	 * @param size the number of keys
+	 * @param range the range of the key values
+	 * @param nulls true if include null keys
+	 * @return the sort keys
+	 */
+	private static Object[] createKeys(final int size, final int range, final boolean nulls) {
+		Random random = new Random(size);
+		Object[] keys = new Object[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = nulls && random.nextInt(4) == 0 ? null : random.nextInt(range);
+		}
+		return keys;
+	}
+
+}